@@ -0,0 +1,72 @@
+package com.example.testex.application.parser;
+
+import com.example.testex.application.config.FeedProperties;
+import com.example.testex.application.config.XmlParserSecurityProperties;
+import com.example.testex.application.metrics.IngestionMetrics;
+import com.example.testex.benchmark.CatalogGenerator;
+import com.example.testex.domain.model.OfferBatch;
+import com.example.testex.domain.model.ParsedCatalog;
+import com.example.testex.domain.model.TableData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CatalogParseBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int offers;
+
+    private CatalogXmlParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path catalog = CatalogGenerator.cached(
+                Path.of(System.getProperty("benchmark.catalog-dir", "target/benchmark-catalogs")), offers);
+        IngestionMetrics ingestionMetrics = new IngestionMetrics(new SimpleMeterRegistry());
+        parser = new CatalogXmlParser(
+                new FeedFetcher(catalog.toUri().toString(), new FeedProperties(), ingestionMetrics),
+                new XmlParserSecurityProperties(),
+                ingestionMetrics
+        );
+    }
+
+    @Benchmark
+    public ParsedCatalog parse() {
+        return parser.parse();
+    }
+
+    @Benchmark
+    public void stream(Blackhole blackhole) {
+        parser.stream(1000, new CatalogStreamListener() {
+            @Override
+            public void onTable(TableData tableData) {
+                blackhole.consume(tableData);
+            }
+
+            @Override
+            public void onOfferBatch(OfferBatch offerBatch) {
+                blackhole.consume(offerBatch);
+            }
+        });
+    }
+}
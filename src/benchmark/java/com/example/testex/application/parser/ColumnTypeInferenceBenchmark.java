@@ -0,0 +1,57 @@
+package com.example.testex.application.parser;
+
+import com.example.testex.domain.model.ColumnType;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ColumnTypeInferenceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int offers;
+
+    @Param({"integer", "decimal", "boolean", "text"})
+    public String shape;
+
+    private String[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        values = new String[offers];
+        for (int row = 0; row < offers; row++) {
+            values[row] = switch (shape) {
+                case "integer" -> Long.toString(random.nextLong(-1_000_000, 1_000_000_000L));
+                case "decimal" -> random.nextInt(1000) + "." + random.nextInt(100);
+                case "boolean" -> random.nextBoolean() ? "true" : "FALSE";
+                default -> "V" + random.nextInt(500) + "-" + row;
+            };
+        }
+    }
+
+    @Benchmark
+    public ColumnType infer() {
+        ColumnTypeInference inference = new ColumnTypeInference();
+        for (String value : values) {
+            inference.accept(value);
+        }
+        return inference.columnType();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.testex.application.parser;
+
+import com.example.testex.domain.model.ColumnData;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RowBuildingBenchmark {
+
+    private static final List<String> KEYS = List.of(
+            "id", "categoryId", "currencyId", "vendorCode", "available", "price", "count"
+    );
+
+    @Param({"1000", "100000", "1000000"})
+    public int offers;
+
+    private String[][] rows;
+    private TableColumnsBuilder built;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        rows = new String[offers][];
+        for (int row = 0; row < offers; row++) {
+            rows[row] = new String[] {
+                    Integer.toString(row + 1),
+                    Integer.toString(1 + random.nextInt(200)),
+                    random.nextBoolean() ? "RUR" : "USD",
+                    "V" + random.nextInt(500) + "-" + (row + 1),
+                    Boolean.toString(random.nextInt(10) > 0),
+                    Integer.toString(100 + random.nextInt(500_000)),
+                    random.nextInt(20) == 0 ? "" : Integer.toString(random.nextInt(100))
+            };
+        }
+        built = buildColumns();
+    }
+
+    @Benchmark
+    public TableColumnsBuilder buildColumns() {
+        TableColumnsBuilder builder = new TableColumnsBuilder();
+        for (String[] row : rows) {
+            for (int column = 0; column < KEYS.size(); column++) {
+                builder.put(KEYS.get(column), row[column]);
+            }
+            builder.endRow();
+        }
+        return builder;
+    }
+
+    @Benchmark
+    public void encodeColumns(Blackhole blackhole) {
+        for (String key : built.sourceKeys()) {
+            blackhole.consume(ColumnData.encode(built.values(key), built.columnType(key)));
+            blackhole.consume(built.columnStats(key));
+        }
+    }
+}
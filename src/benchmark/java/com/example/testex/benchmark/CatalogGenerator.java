@@ -0,0 +1,232 @@
+package com.example.testex.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.SplittableRandom;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes a synthetic {@code yml_catalog} feed. Every offer is derived from the seed, its own id and
+ * the last version that changed it, so the same spec and version always produce the same file and
+ * consecutive versions differ in roughly {@code changeRate} of their offers.
+ */
+public class CatalogGenerator {
+
+    private static final List<String> CURRENCIES = List.of("RUR", "USD", "EUR");
+    private static final List<String> PARAM_NAMES = List.of(
+            "Цвет", "Вес", "Размер", "Материал", "Гарантия", "Страна производства", "Мощность", "Объем",
+            "batteryCapacity", "screenSize", "Тип подключения", "Комплектация"
+    );
+    private static final List<String> WORDS = List.of(
+            "compact", "wireless", "steel", "classic", "premium", "smart", "portable", "ultra", "eco", "pro",
+            "удобный", "надежный", "легкий", "мощный", "тихий", "новый"
+    );
+    private static final int CATEGORIES = 200;
+    private static final int VENDORS = 500;
+
+    private final Spec spec;
+
+    public CatalogGenerator(Spec spec) {
+        this.spec = spec;
+    }
+
+    public static void main(String[] args) throws IOException {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        Spec spec = Spec.from(options);
+        int version = options.integer("version", 0);
+        Path output = Path.of(options.string("output", "target/catalog-" + spec.offers() + "-v" + version + ".xml"));
+        new CatalogGenerator(spec).write(output, version);
+        System.out.println("Wrote " + output.toAbsolutePath() + " (" + Files.size(output) + " bytes)");
+    }
+
+    public static Path cached(Path directory, int offers) throws IOException {
+        return cached(directory, Spec.ofOffers(offers), 0);
+    }
+
+    public static Path cached(Path directory, Spec spec, int version) throws IOException {
+        Path file = directory.resolve("catalog-" + spec.key() + "-v" + version + ".xml");
+        if (!Files.isRegularFile(file)) {
+            Files.createDirectories(directory);
+            Path partFile = Files.createTempFile(directory, "catalog-" + spec.offers(), ".part");
+            new CatalogGenerator(spec).write(partFile, version);
+            Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return file;
+    }
+
+    public void write(Path file, int version) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file), 256 * 1024)) {
+            XMLStreamWriter writer = XMLOutputFactory.newFactory()
+                    .createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+            try {
+                writeCatalog(writer, version);
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException exception) {
+            throw new IOException("Failed to write synthetic catalog " + file, exception);
+        }
+    }
+
+    private void writeCatalog(XMLStreamWriter writer, int version) throws XMLStreamException {
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        writer.writeCharacters("\n");
+        writer.writeStartElement("yml_catalog");
+        writer.writeAttribute("date", "2024-01-01 10:00");
+        writer.writeCharacters("\n");
+        writer.writeStartElement("shop");
+        writeText(writer, 1, "name", "Synthetic shop");
+
+        writer.writeCharacters("\n  ");
+        writer.writeStartElement("currencies");
+        for (int index = 0; index < CURRENCIES.size(); index++) {
+            writer.writeCharacters("\n    ");
+            writer.writeEmptyElement("currency");
+            writer.writeAttribute("id", CURRENCIES.get(index));
+            writer.writeAttribute("rate", index == 0 ? "1" : Integer.toString(80 + index * 10));
+        }
+        writer.writeCharacters("\n  ");
+        writer.writeEndElement();
+
+        writer.writeCharacters("\n  ");
+        writer.writeStartElement("categories");
+        int depth = Math.max(1, Math.min(spec.categoryDepth(), CATEGORIES));
+        for (int category = 1; category <= CATEGORIES; category++) {
+            writer.writeCharacters("\n    ");
+            writer.writeStartElement("category");
+            writer.writeAttribute("id", Integer.toString(category));
+            int level = (category - 1) * depth / CATEGORIES;
+            if (level > 0) {
+                int parentLevelStart = levelStart(level - 1, depth);
+                int parentLevelSize = levelStart(level, depth) - parentLevelStart;
+                writer.writeAttribute("parentId", Integer.toString(parentLevelStart + category % parentLevelSize));
+            }
+            writer.writeCharacters("Category " + category);
+            writer.writeEndElement();
+        }
+        writer.writeCharacters("\n  ");
+        writer.writeEndElement();
+
+        writer.writeCharacters("\n  ");
+        writer.writeStartElement("offers");
+        for (long offerId = 1; offerId <= spec.offers(); offerId++) {
+            writeOffer(writer, offerId, contentVersion(offerId, version));
+        }
+        writer.writeCharacters("\n  ");
+        writer.writeEndElement();
+
+        writer.writeCharacters("\n");
+        writer.writeEndElement();
+        writer.writeCharacters("\n");
+        writer.writeEndElement();
+        writer.writeEndDocument();
+    }
+
+    private int levelStart(int level, int depth) {
+        return 1 + (level * CATEGORIES + depth - 1) / depth;
+    }
+
+    private int contentVersion(long offerId, int version) {
+        for (int candidate = version; candidate > 0; candidate--) {
+            if (new SplittableRandom(spec.seed() ^ (offerId * 0x9E3779B97F4A7C15L) ^ candidate).nextDouble()
+                    < spec.changeRate()) {
+                return candidate;
+            }
+        }
+        return 0;
+    }
+
+    private void writeOffer(XMLStreamWriter writer, long offerId, int contentVersion) throws XMLStreamException {
+        SplittableRandom random = new SplittableRandom(spec.seed() * 31 + offerId);
+        int vendor = random.nextInt(VENDORS);
+        int category = 1 + random.nextInt(CATEGORIES);
+        if (contentVersion > 0) {
+            random = new SplittableRandom((spec.seed() * 31 + offerId) * 1_000_003L + contentVersion);
+        }
+
+        writer.writeCharacters("\n    ");
+        writer.writeStartElement("offer");
+        writer.writeAttribute("id", Long.toString(offerId));
+        writer.writeAttribute("available", Boolean.toString(random.nextInt(10) > 0));
+        writeText(writer, 3, "url", "https://shop.example/offers/" + offerId);
+        writeText(writer, 3, "price", Integer.toString(100 + random.nextInt(500_000)));
+        writeText(writer, 3, "currencyId", CURRENCIES.get(random.nextInt(CURRENCIES.size())));
+        writeText(writer, 3, "categoryId", Integer.toString(category));
+        writeText(writer, 3, "picture", "https://shop.example/images/" + offerId + ".jpg");
+        writeText(writer, 3, "name", words(random, 3) + " " + offerId);
+        writeText(writer, 3, "vendor", "Vendor " + vendor);
+        writeText(writer, 3, "vendorCode", "V" + vendor + "-" + offerId);
+        writer.writeCharacters("\n      ");
+        writer.writeStartElement("description");
+        writer.writeCData("<p>" + words(random, spec.descriptionWords()) + "</p>");
+        writer.writeEndElement();
+        for (int param = 0; param < spec.paramsPerOffer(); param++) {
+            writer.writeCharacters("\n      ");
+            writer.writeStartElement("param");
+            writer.writeAttribute("name", PARAM_NAMES.get((int) ((offerId + param) % PARAM_NAMES.size())));
+            writer.writeCharacters(random.nextBoolean() ? Integer.toString(random.nextInt(1000)) : words(random, 2));
+            writer.writeEndElement();
+        }
+        writeText(writer, 3, "count", Integer.toString(random.nextInt(100)));
+        writer.writeCharacters("\n    ");
+        writer.writeEndElement();
+    }
+
+    private void writeText(XMLStreamWriter writer, int depth, String element, String text)
+            throws XMLStreamException {
+        writer.writeCharacters("\n" + "  ".repeat(depth));
+        writer.writeStartElement(element);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+    }
+
+    private String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int index = 0; index < count; index++) {
+            if (index > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        return text.toString();
+    }
+
+    public record Spec(
+            int offers,
+            int paramsPerOffer,
+            int descriptionWords,
+            int categoryDepth,
+            double changeRate,
+            long seed
+    ) {
+
+        public static Spec ofOffers(int offers) {
+            return new Spec(offers, 3, 24, 3, 0.1, 42);
+        }
+
+        static Spec from(BenchmarkOptions options) {
+            Spec defaults = ofOffers(options.integer("offers", 100_000));
+            return new Spec(
+                    defaults.offers(),
+                    options.integer("params", defaults.paramsPerOffer()),
+                    options.integer("description-words", defaults.descriptionWords()),
+                    options.integer("category-depth", defaults.categoryDepth()),
+                    options.decimal("change-rate", defaults.changeRate()),
+                    options.longValue("seed", defaults.seed())
+            );
+        }
+
+        public String key() {
+            return offers + "-p" + paramsPerOffer + "-d" + descriptionWords + "-c" + categoryDepth + "-r" + changeRate
+                    + "-s" + seed;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.testex.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates versioned synthetic feeds and runs {@code update} against each of them in a fresh JVM,
+ * the way the console is used today. Every run records wall time, peak RSS, peak heap and the rows
+ * written per second, appends them to a CSV file and compares them with the last stored run of the
+ * same scenario.
+ */
+public class IngestionLoadHarness {
+
+    private static final String MAIN_CLASS = "com.example.testex.standalone.TestexApplication";
+    private static final String CSV_HEADER = "timestamp,label,offers,params,description_words,category_depth,"
+            + "change_rate,seed,version,feed_bytes,wall_ms,peak_rss_mb,peak_heap_mb,db_rows,rows_per_sec,exit_code";
+    private static final Pattern GC_HEAP = Pattern.compile("(\\d+)([KMG])->(\\d+)([KMG])\\((\\d+)([KMG])\\)");
+    private static final Pattern EXIT_HEAP = Pattern.compile("used (\\d+)K");
+    private static final String WRITE_METRIC = "catalog.repository.write{";
+    private static final List<String> RESET_TABLES = List.of(
+            "offers", "vendor", "currency", "categories", "offer_fingerprint", "ingestion_run", "param_name"
+    );
+
+    private final BenchmarkOptions options;
+    private final Path workDir;
+    private final Path resultsFile;
+    private final String label;
+
+    private IngestionLoadHarness(BenchmarkOptions options) {
+        this.options = options;
+        this.workDir = Path.of(options.string("work-dir", "target/load-harness"));
+        this.resultsFile = Path.of(options.string("results", "benchmarks/ingestion-results.csv"));
+        this.label = options.string("label", System.getenv().getOrDefault("INGESTION_MODE", "materialized"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new IngestionLoadHarness(new BenchmarkOptions(args)).run();
+    }
+
+    private void run() throws IOException, InterruptedException, SQLException {
+        Files.createDirectories(workDir);
+        int versions = options.integer("versions", 3);
+        for (int offers : options.integers("offers", "100000")) {
+            CatalogGenerator.Spec defaults = CatalogGenerator.Spec.ofOffers(offers);
+            CatalogGenerator.Spec spec = new CatalogGenerator.Spec(
+                    offers,
+                    options.integer("params", defaults.paramsPerOffer()),
+                    options.integer("description-words", defaults.descriptionWords()),
+                    options.integer("category-depth", defaults.categoryDepth()),
+                    options.decimal("change-rate", defaults.changeRate()),
+                    options.longValue("seed", defaults.seed())
+            );
+            if (options.bool("reset", true)) {
+                resetDatabase();
+            }
+            for (int version = 0; version < versions; version++) {
+                Path feed = CatalogGenerator.cached(workDir.resolve("feeds"), spec, version);
+                RunResult result = ingest(spec, version, feed);
+                report(result);
+                store(result);
+                if (result.exitCode() != 0) {
+                    throw new IllegalStateException("update exited with " + result.exitCode() + ", see " + result.log());
+                }
+            }
+        }
+    }
+
+    private RunResult ingest(CatalogGenerator.Spec spec, int version, Path feed)
+            throws IOException, InterruptedException {
+        String runName = "run-" + spec.key() + "-v" + version;
+        Path log = workDir.resolve(runName + ".log");
+        Path gcLog = workDir.resolve(runName + ".gc.log");
+        Files.deleteIfExists(gcLog);
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String jvmArg : options.string("jvm-args", "-Xmx4g").split(" ")) {
+            if (!jvmArg.isBlank()) {
+                command.add(jvmArg);
+            }
+        }
+        command.add("-Xlog:gc,gc+heap+exit:file=" + gcLog);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MAIN_CLASS);
+        command.add("update");
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        processBuilder.environment().put("XML_URL", feed.toUri().toString());
+
+        long started = System.nanoTime();
+        Process process = processBuilder.start();
+        long peakRssKb = -1;
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        while (!process.waitFor(50, TimeUnit.MILLISECONDS)) {
+            peakRssKb = Math.max(peakRssKb, highWaterMarkKb(status));
+        }
+        long wallNanos = System.nanoTime() - started;
+
+        long dbRows = writtenRows(log);
+        double seconds = wallNanos / 1e9;
+        return new RunResult(
+                Instant.now(),
+                spec,
+                version,
+                Files.size(feed),
+                TimeUnit.NANOSECONDS.toMillis(wallNanos),
+                peakRssKb < 0 ? -1 : peakRssKb / 1024.0,
+                peakHeapMb(gcLog),
+                dbRows,
+                seconds > 0 ? dbRows / seconds : 0,
+                process.exitValue(),
+                log
+        );
+    }
+
+    private long highWaterMarkKb(Path status) {
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | UncheckedIOException exception) {
+            return -1;
+        }
+        return -1;
+    }
+
+    private long writtenRows(Path log) throws IOException {
+        long rows = 0;
+        for (String line : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (!trimmed.startsWith(WRITE_METRIC)) {
+                continue;
+            }
+            String[] columns = trimmed.split("\\s+");
+            if (columns.length >= 5) {
+                rows += Long.parseLong(columns[4]);
+            }
+        }
+        return rows;
+    }
+
+    private double peakHeapMb(Path gcLog) throws IOException {
+        if (!Files.isRegularFile(gcLog)) {
+            return -1;
+        }
+        double peak = -1;
+        for (String line : Files.readAllLines(gcLog)) {
+            Matcher gc = GC_HEAP.matcher(line);
+            if (gc.find()) {
+                peak = Math.max(peak, toMb(gc.group(1), gc.group(2)));
+                continue;
+            }
+            Matcher exit = EXIT_HEAP.matcher(line);
+            if (line.contains("total") && exit.find()) {
+                peak = Math.max(peak, toMb(exit.group(1), "K"));
+            }
+        }
+        return peak;
+    }
+
+    private double toMb(String value, String unit) {
+        double amount = Double.parseDouble(value);
+        return switch (unit) {
+            case "K" -> amount / 1024;
+            case "G" -> amount * 1024;
+            default -> amount;
+        };
+    }
+
+    private void resetDatabase() throws SQLException {
+        Map<String, String> environment = System.getenv();
+        String schema = environment.getOrDefault("DB_SCHEMA", "public");
+        try (Connection connection = DriverManager.getConnection(
+                environment.getOrDefault("DB_URL", "jdbc:postgresql://localhost:5432/testex"),
+                environment.getOrDefault("DB_USER", "postgres"),
+                environment.getOrDefault("DB_PASSWORD", "postgres"));
+             Statement statement = connection.createStatement()) {
+            List<String> existing = new ArrayList<>();
+            for (String table : RESET_TABLES) {
+                try (ResultSet resultSet = statement.executeQuery(
+                        "SELECT to_regclass('\"" + schema + "\".\"" + table + "\"') IS NOT NULL")) {
+                    if (resultSet.next() && resultSet.getBoolean(1)) {
+                        existing.add("\"" + schema + "\".\"" + table + "\"");
+                    }
+                }
+            }
+            if (!existing.isEmpty()) {
+                statement.execute("TRUNCATE " + String.join(", ", existing) + " CASCADE");
+            }
+        }
+    }
+
+    private void report(RunResult result) throws IOException {
+        System.out.printf(Locale.ROOT, "%s v%d: wall=%d ms, rss=%.0f MB, heap=%.0f MB, rows=%d, rows/s=%.0f%s%n",
+                result.spec().key(), result.version(), result.wallMillis(), result.peakRssMb(), result.peakHeapMb(),
+                result.dbRows(), result.rowsPerSecond(), comparison(result));
+    }
+
+    private String comparison(RunResult result) throws IOException {
+        if (!Files.isRegularFile(resultsFile)) {
+            return "";
+        }
+        String scenario = scenario(result);
+        String[] previous = null;
+        for (String line : Files.readAllLines(resultsFile, StandardCharsets.UTF_8)) {
+            String[] columns = line.split(",");
+            if (columns.length == 16 && !line.equals(CSV_HEADER) && scenario(columns).equals(scenario)
+                    && "0".equals(columns[15])) {
+                previous = columns;
+            }
+        }
+        if (previous == null) {
+            return "";
+        }
+        return String.format(Locale.ROOT, " (vs %s %s: wall %+.1f%%, rss %+.1f%%, rows/s %+.1f%%)",
+                previous[0], previous[1],
+                change(Double.parseDouble(previous[10]), result.wallMillis()),
+                change(Double.parseDouble(previous[11]), result.peakRssMb()),
+                change(Double.parseDouble(previous[14]), result.rowsPerSecond()));
+    }
+
+    private double change(double previous, double current) {
+        return previous == 0 ? 0 : (current - previous) * 100 / previous;
+    }
+
+    private String scenario(RunResult result) {
+        return String.join(",", csvColumns(result).subList(1, 9));
+    }
+
+    private String scenario(String[] columns) {
+        return String.join(",", List.of(columns).subList(1, 9));
+    }
+
+    private void store(RunResult result) throws IOException {
+        if (resultsFile.getParent() != null) {
+            Files.createDirectories(resultsFile.getParent());
+        }
+        List<String> lines = new ArrayList<>();
+        if (!Files.isRegularFile(resultsFile)) {
+            lines.add(CSV_HEADER);
+        }
+        lines.add(String.join(",", csvColumns(result)));
+        Files.write(resultsFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private List<String> csvColumns(RunResult result) {
+        CatalogGenerator.Spec spec = result.spec();
+        return List.of(
+                result.timestamp().toString(),
+                label.replace(',', ';'),
+                Integer.toString(spec.offers()),
+                Integer.toString(spec.paramsPerOffer()),
+                Integer.toString(spec.descriptionWords()),
+                Integer.toString(spec.categoryDepth()),
+                Double.toString(spec.changeRate()),
+                Long.toString(spec.seed()),
+                Integer.toString(result.version()),
+                Long.toString(result.feedBytes()),
+                Long.toString(result.wallMillis()),
+                String.format(Locale.ROOT, "%.1f", result.peakRssMb()),
+                String.format(Locale.ROOT, "%.1f", result.peakHeapMb()),
+                Long.toString(result.dbRows()),
+                String.format(Locale.ROOT, "%.1f", result.rowsPerSecond()),
+                Integer.toString(result.exitCode())
+        );
+    }
+
+    private record RunResult(
+            Instant timestamp,
+            CatalogGenerator.Spec spec,
+            int version,
+            long feedBytes,
+            long wallMillis,
+            double peakRssMb,
+            double peakHeapMb,
+            long dbRows,
+            double rowsPerSecond,
+            int exitCode,
+            Path log
+    ) {
+    }
+}
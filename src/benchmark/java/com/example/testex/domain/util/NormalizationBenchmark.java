@@ -0,0 +1,52 @@
+package com.example.testex.domain.util;
+
+import com.example.testex.domain.model.ColumnType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class NormalizationBenchmark {
+
+    private static final String[] SOURCE_KEYS = {
+            "id", "vendorCode", "available", "batteryCapacity", "param:Цвет", "param:Страна производства",
+            "param:", "1stColumn", "aVeryLongAttributeNameThatIsWellBeyondTheIdentifierLimitOfPostgresItself"
+    };
+    private static final String[] VALUES = {
+            "12345", " -42 ", "1,5", "3.1415", "true", "FALSE", "", "12 345", "not a number"
+    };
+    private static final ColumnType[] TYPES = {
+            ColumnType.BIGINT, ColumnType.BIGINT, ColumnType.NUMERIC, ColumnType.NUMERIC, ColumnType.BOOLEAN,
+            ColumnType.BOOLEAN, ColumnType.TEXT, ColumnType.BIGINT, ColumnType.TEXT
+    };
+
+    private final ColumnNameNormalizer columnNameNormalizer = new ColumnNameNormalizer();
+    private final SqlValueParser sqlValueParser = new SqlValueParser();
+
+    @Benchmark
+    public void normalizeColumnNames(Blackhole blackhole) {
+        for (String sourceKey : SOURCE_KEYS) {
+            blackhole.consume(columnNameNormalizer.normalize(sourceKey));
+        }
+    }
+
+    @Benchmark
+    public void parseValues(Blackhole blackhole) {
+        for (int index = 0; index < VALUES.length; index++) {
+            blackhole.consume(sqlValueParser.parse(VALUES[index], TYPES[index]));
+        }
+    }
+}
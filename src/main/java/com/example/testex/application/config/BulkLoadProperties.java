@@ -0,0 +1,37 @@
+package com.example.testex.application.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.bulk-load")
+public class BulkLoadProperties {
+
+    private boolean enabled;
+    private double changedShareThreshold = 0.3;
+    private long minChangedRows = 10000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getChangedShareThreshold() {
+        return changedShareThreshold;
+    }
+
+    public void setChangedShareThreshold(double changedShareThreshold) {
+        this.changedShareThreshold = changedShareThreshold;
+    }
+
+    public long getMinChangedRows() {
+        return minChangedRows;
+    }
+
+    public void setMinChangedRows(long minChangedRows) {
+        this.minChangedRows = minChangedRows;
+    }
+}
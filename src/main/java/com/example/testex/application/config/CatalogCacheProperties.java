@@ -0,0 +1,47 @@
+package com.example.testex.application.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.catalog-cache")
+public class CatalogCacheProperties {
+
+    private Duration ttl = Duration.ofMinutes(10);
+    private Duration refreshAhead = Duration.ofMinutes(2);
+    private boolean serveStale = true;
+    private Duration maxStale = Duration.ofMinutes(30);
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    public void setRefreshAhead(Duration refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    public boolean isServeStale() {
+        return serveStale;
+    }
+
+    public void setServeStale(boolean serveStale) {
+        this.serveStale = serveStale;
+    }
+
+    public Duration getMaxStale() {
+        return maxStale;
+    }
+
+    public void setMaxStale(Duration maxStale) {
+        this.maxStale = maxStale;
+    }
+}
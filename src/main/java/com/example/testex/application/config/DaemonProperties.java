@@ -0,0 +1,47 @@
+package com.example.testex.application.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.daemon")
+public class DaemonProperties {
+
+    private String cron = "";
+    private Duration fixedDelay = Duration.ofMinutes(15);
+    private Duration initialDelay = Duration.ZERO;
+    private Duration shutdownTimeout = Duration.ofMinutes(5);
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public Duration getFixedDelay() {
+        return fixedDelay;
+    }
+
+    public void setFixedDelay(Duration fixedDelay) {
+        this.fixedDelay = fixedDelay;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.testex.application.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.feed")
+public class FeedProperties {
+
+    private String spoolDir = System.getProperty("java.io.tmpdir") + "/testex-feed";
+    private boolean conditionalFetch = true;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration requestTimeout = Duration.ofMinutes(10);
+
+    public String getSpoolDir() {
+        return spoolDir;
+    }
+
+    public void setSpoolDir(String spoolDir) {
+        this.spoolDir = spoolDir;
+    }
+
+    public boolean isConditionalFetch() {
+        return conditionalFetch;
+    }
+
+    public void setConditionalFetch(boolean conditionalFetch) {
+        this.conditionalFetch = conditionalFetch;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.testex.application.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.ingestion")
+public class IngestionProperties {
+
+    private Mode mode = Mode.MATERIALIZED;
+    private int batchSize = 1000;
+    private int queueCapacity = 4;
+    private boolean deltaSync;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public boolean isDeltaSync() {
+        return deltaSync;
+    }
+
+    public void setDeltaSync(boolean deltaSync) {
+        this.deltaSync = deltaSync;
+    }
+
+    public enum Mode {
+        MATERIALIZED,
+        STREAMING,
+        CHECKPOINTED
+    }
+}
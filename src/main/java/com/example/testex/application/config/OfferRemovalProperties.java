@@ -0,0 +1,43 @@
+package com.example.testex.application.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.offer-removal")
+public class OfferRemovalProperties {
+
+    private Mode mode = Mode.NONE;
+    private int batchSize = 1000;
+    private double maxRemovedRatio = 0.2;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public double getMaxRemovedRatio() {
+        return maxRemovedRatio;
+    }
+
+    public void setMaxRemovedRatio(double maxRemovedRatio) {
+        this.maxRemovedRatio = maxRemovedRatio;
+    }
+
+    public enum Mode {
+        NONE,
+        DELETE,
+        MARK_UNAVAILABLE
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.testex.application.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.repository")
+public class RepositoryWriteProperties {
+
+    private Map<String, WriteMode> writeMode = new LinkedHashMap<>();
+    private int unnestChunkSize = 5000;
+    private int parallelism = 1;
+
+    public Map<String, WriteMode> getWriteMode() {
+        return writeMode;
+    }
+
+    public void setWriteMode(Map<String, WriteMode> writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    public int getUnnestChunkSize() {
+        return unnestChunkSize;
+    }
+
+    public void setUnnestChunkSize(int unnestChunkSize) {
+        this.unnestChunkSize = unnestChunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public WriteMode writeModeFor(String repositoryName) {
+        return writeMode.getOrDefault(repositoryName, WriteMode.BATCH);
+    }
+
+    public enum WriteMode {
+        BATCH,
+        COPY,
+        UNNEST,
+        MERGE
+    }
+}
@@ -19,6 +19,15 @@ public class XmlParserSecurityProperties {
         this.features = features;
     }
 
+    public boolean isFeatureEnabled(String uri, boolean defaultValue) {
+        for (Feature feature : features) {
+            if (uri.equals(feature.getUri())) {
+                return feature.isEnabled();
+            }
+        }
+        return defaultValue;
+    }
+
     public static class Feature {
 
         private String uri;
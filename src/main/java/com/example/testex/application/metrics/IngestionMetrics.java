@@ -0,0 +1,188 @@
+package com.example.testex.application.metrics;
+
+import com.example.testex.domain.model.TableData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records timers, row counters and size summaries for every ingestion stage into the in-process
+ * registry. A timer named {@code x} is paired with the counter {@code x.rows} of the same tags, which
+ * is what the summary uses to derive rows per second. Fetch, parse, table build and repository writes
+ * also emit an {@link IngestionStageEvent}; its byte estimates are only computed while a recording
+ * has the event enabled.
+ */
+@Component
+public class IngestionMetrics {
+
+    private static final String ROWS_SUFFIX = ".rows";
+
+    private final MeterRegistry meterRegistry;
+    private final RetainedSizeEstimator retainedSizeEstimator = new RetainedSizeEstimator();
+
+    public IngestionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Sample start() {
+        IngestionStageEvent event = new IngestionStageEvent();
+        event.begin();
+        return new Sample(System.nanoTime(), event);
+    }
+
+    public void recordFetch(Sample sample, String source, String result, long bytes) {
+        Tags tags = Tags.of("source", source, "result", result);
+        meterRegistry.timer("catalog.fetch", tags).record(sample.elapsedNanos(), TimeUnit.NANOSECONDS);
+        commit(sample, "fetch", null, 0, () -> Math.max(bytes, 0));
+        if (bytes >= 0) {
+            DistributionSummary.builder("catalog.fetch.bytes")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(bytes);
+        }
+    }
+
+    public void recordParse(Sample sample, String section, long rows, long bytes, long downstreamNanos) {
+        record("catalog.parse", Tags.of("section", section), rows, sample.elapsedNanos() - downstreamNanos);
+        commit(sample, "parse", section, rows, () -> bytes);
+    }
+
+    public void recordTableBuild(Sample sample, TableData tableData) {
+        record("catalog.table.build", Tags.of("table", tableData.tableName()), tableData.rowCount(),
+                sample.elapsedNanos());
+        commit(sample, "table-build", tableData.tableName(), tableData.rowCount(),
+                () -> retainedSizeEstimator.estimate(tableData));
+    }
+
+    public void recordOfferBatch(int offers, int offerParams) {
+        DistributionSummary.builder("catalog.batch.size")
+                .tags("table", "offers")
+                .register(meterRegistry)
+                .record(offers);
+        DistributionSummary.builder("catalog.batch.size")
+                .tags("table", "offer_params")
+                .register(meterRegistry)
+                .record(offerParams);
+    }
+
+    public void recordCacheLookup(String cacheName, String result) {
+        meterRegistry.counter("catalog.cache", "cache", cacheName, "result", result).increment();
+    }
+
+    public void recordStage(String stage, long nanos) {
+        meterRegistry.timer("catalog.stage", "stage", stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void timeWrite(String tableName, long rows, Object payload, Runnable write) {
+        timeWrite(tableName, rows, payload, () -> {
+            write.run();
+            return null;
+        });
+    }
+
+    public <T> T timeWrite(String tableName, long rows, Object payload, Supplier<T> write) {
+        Sample sample = start();
+        T result = write.get();
+        record("catalog.repository.write", Tags.of("table", tableName), rows, sample.elapsedNanos());
+        commit(sample, "repository-write", tableName, rows,
+                () -> payload == null ? 0 : retainedSizeEstimator.estimate(payload));
+        return result;
+    }
+
+    public long estimateRetainedSize(Object root) {
+        return retainedSizeEstimator.estimate(root);
+    }
+
+    public List<String> summary() {
+        List<Meter> meters = new ArrayList<>(meterRegistry.getMeters());
+        meters.sort(Comparator.comparing(this::label));
+        List<String> lines = new ArrayList<>();
+        if (meters.isEmpty()) {
+            return lines;
+        }
+
+        lines.add(String.format("%-56s %8s %10s %10s %12s %12s", "timer", "count", "total ms", "max ms", "rows",
+                "rows/s"));
+        for (Meter meter : meters) {
+            if (meter instanceof Timer timer) {
+                double totalMillis = timer.totalTime(TimeUnit.MILLISECONDS);
+                Counter rows = meterRegistry.find(timer.getId().getName() + ROWS_SUFFIX)
+                        .tags(timer.getId().getTags())
+                        .counter();
+                String rowCount = rows == null ? "" : String.format("%.0f", rows.count());
+                String rowRate = rows == null || totalMillis <= 0
+                        ? ""
+                        : String.format("%.0f", rows.count() * 1000 / totalMillis);
+                lines.add(String.format("%-56s %8d %10.1f %10.1f %12s %12s", label(meter), timer.count(),
+                        totalMillis, timer.max(TimeUnit.MILLISECONDS), rowCount, rowRate));
+            }
+        }
+
+        lines.add(String.format("%-56s %8s %10s %10s %12s", "summary", "count", "total", "mean", "max"));
+        for (Meter meter : meters) {
+            if (meter instanceof DistributionSummary summary) {
+                lines.add(String.format("%-56s %8d %10.0f %10.1f %12.0f", label(meter), summary.count(),
+                        summary.totalAmount(), summary.mean(), summary.max()));
+            }
+        }
+
+        lines.add(String.format("%-56s %8s", "counter", "count"));
+        for (Meter meter : meters) {
+            if (meter instanceof Counter counter && !meter.getId().getName().endsWith(ROWS_SUFFIX)) {
+                lines.add(String.format("%-56s %8.0f", label(meter), counter.count()));
+            }
+        }
+        return lines;
+    }
+
+    public void reset() {
+        meterRegistry.clear();
+    }
+
+    private void commit(Sample sample, String stage, String table, long rows, LongSupplier bytes) {
+        IngestionStageEvent event = sample.event();
+        event.end();
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.table = table;
+            event.rows = rows;
+            event.bytes = bytes.getAsLong();
+            event.commit();
+        }
+    }
+
+    private void record(String name, Tags tags, long rows, long nanos) {
+        meterRegistry.timer(name, tags).record(nanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter(name + ROWS_SUFFIX, tags).increment(rows);
+    }
+
+    private String label(Meter meter) {
+        List<String> tags = new ArrayList<>();
+        for (Tag tag : meter.getId().getTags()) {
+            tags.add(tag.getKey() + "=" + tag.getValue());
+        }
+        return meter.getId().getName() + (tags.isEmpty() ? "" : "{" + String.join(",", tags) + "}");
+    }
+
+    public record Sample(
+            long startedNanos,
+            IngestionStageEvent event
+    ) {
+
+        long elapsedNanos() {
+            return System.nanoTime() - startedNanos;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.testex.application.metrics;
+
+import com.example.testex.domain.model.ParsedCatalog;
+import com.example.testex.domain.model.TableData;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs an action under a flight recording and breaks the recording down by ingestion stage. Allocation
+ * samples are charged to the innermost stage event of the allocating thread, and each GC pause to the
+ * innermost stage event running when the collection started.
+ */
+@Component
+public class IngestionProfiler {
+
+    private static final String STAGE_EVENT = "com.example.testex.IngestionStage";
+    private static final String ALLOCATION_EVENT = "jdk.ObjectAllocationSample";
+    private static final String GC_EVENT = "jdk.GarbageCollection";
+    private static final String OTHER_STAGE = "other";
+    private static final Comparator<StageSpan> SPAN_ORDER = Comparator.comparing(StageSpan::start)
+            .thenComparing(StageSpan::end, Comparator.reverseOrder());
+
+    private final IngestionMetrics ingestionMetrics;
+
+    public IngestionProfiler(IngestionMetrics ingestionMetrics) {
+        this.ingestionMetrics = ingestionMetrics;
+    }
+
+    public ProfileReport profile(Path recordingFile, Runnable action) {
+        try (Recording recording = new Recording()) {
+            recording.setName("testex-profile");
+            recording.enable(IngestionStageEvent.class).withoutThreshold();
+            recording.enable(ALLOCATION_EVENT).with("throttle", "10000/s").withoutStackTrace();
+            recording.enable(GC_EVENT);
+            recording.start();
+            try {
+                action.run();
+            } finally {
+                recording.stop();
+                recording.dump(recordingFile);
+            }
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to write flight recording " + recordingFile, exception);
+        }
+
+        try {
+            return analyze(recordingFile);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to read flight recording " + recordingFile, exception);
+        }
+    }
+
+    public LinkedHashMap<String, Long> retainedSizes(ParsedCatalog parsedCatalog) {
+        LinkedHashMap<String, Long> sizes = new LinkedHashMap<>();
+        for (TableData tableData : parsedCatalog.tables().values()) {
+            sizes.put("TableData " + tableData.tableName(), ingestionMetrics.estimateRetainedSize(tableData));
+        }
+        sizes.put("offerVendors", ingestionMetrics.estimateRetainedSize(parsedCatalog.offerVendors()));
+        sizes.put("offerMetas", ingestionMetrics.estimateRetainedSize(parsedCatalog.offerMetas()));
+        sizes.put("offerParams", ingestionMetrics.estimateRetainedSize(parsedCatalog.offerParams()));
+        return sizes;
+    }
+
+    private ProfileReport analyze(Path recordingFile) throws IOException {
+        List<StageSpan> spans = new ArrayList<>();
+        Map<Long, List<StageSpan>> spansByThread = new HashMap<>();
+        try (RecordingFile recording = new RecordingFile(recordingFile)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                if (!event.getEventType().getName().equals(STAGE_EVENT)) {
+                    continue;
+                }
+                StageSpan span = new StageSpan(
+                        event.getString("stage"),
+                        event.getString("table"),
+                        threadId(event),
+                        event.getStartTime(),
+                        event.getEndTime(),
+                        event.getLong("rows"),
+                        event.getLong("bytes")
+                );
+                spans.add(span);
+                spansByThread.computeIfAbsent(span.threadId(), key -> new ArrayList<>()).add(span);
+            }
+        }
+
+        LinkedHashMap<String, StageTotals> totals = new LinkedHashMap<>();
+        spans.sort(SPAN_ORDER);
+        for (StageSpan span : spans) {
+            StageTotals stageTotals = totals.computeIfAbsent(span.key(), key -> new StageTotals(span.stage(),
+                    span.table()));
+            stageTotals.count++;
+            stageTotals.duration = stageTotals.duration.plus(Duration.between(span.start(), span.end()));
+            stageTotals.rows += span.rows();
+            stageTotals.bytes += span.bytes();
+        }
+        Map<Long, ThreadSpans> threadSpans = new HashMap<>();
+        spansByThread.forEach((threadId, threadSpanList) -> threadSpans.put(threadId, new ThreadSpans(threadSpanList)));
+
+        long allocatedBytes = 0;
+        int gcCount = 0;
+        Duration gcPause = Duration.ZERO;
+        try (RecordingFile recording = new RecordingFile(recordingFile)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case ALLOCATION_EVENT -> {
+                        long weight = event.getLong("weight");
+                        allocatedBytes += weight;
+                        ThreadSpans thread = threadSpans.get(threadId(event));
+                        StageSpan span = thread == null ? null : thread.innermost(event.getStartTime());
+                        stageTotals(totals, span).allocatedBytes += weight;
+                    }
+                    case GC_EVENT -> {
+                        Duration pause = event.getDuration("sumOfPauses");
+                        gcCount++;
+                        gcPause = gcPause.plus(pause);
+                        StageTotals stageTotals = stageTotals(totals,
+                                innermost(threadSpans.values(), event.getStartTime()));
+                        stageTotals.gcPause = stageTotals.gcPause.plus(pause);
+                        stageTotals.gcCount++;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        List<StageProfile> stages = new ArrayList<>();
+        for (StageTotals stageTotals : totals.values()) {
+            stages.add(new StageProfile(stageTotals.stage, stageTotals.table, stageTotals.count, stageTotals.duration,
+                    stageTotals.rows, stageTotals.bytes, stageTotals.allocatedBytes, stageTotals.gcCount,
+                    stageTotals.gcPause));
+        }
+        return new ProfileReport(recordingFile, stages, allocatedBytes, gcCount, gcPause);
+    }
+
+    private StageTotals stageTotals(Map<String, StageTotals> totals, StageSpan span) {
+        if (span == null) {
+            return totals.computeIfAbsent(OTHER_STAGE, key -> new StageTotals(OTHER_STAGE, null));
+        }
+        return totals.get(span.key());
+    }
+
+    private StageSpan innermost(Collection<ThreadSpans> threads, Instant instant) {
+        StageSpan innermost = null;
+        for (ThreadSpans thread : threads) {
+            StageSpan span = thread.innermost(instant);
+            if (span != null && (innermost == null || span.start().isAfter(innermost.start()))) {
+                innermost = span;
+            }
+        }
+        return innermost;
+    }
+
+    private long threadId(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        return thread == null ? -1 : thread.getJavaThreadId();
+    }
+
+    public record ProfileReport(
+            Path recordingFile,
+            List<StageProfile> stages,
+            long allocatedBytes,
+            int gcCount,
+            Duration gcPause
+    ) {
+    }
+
+    public record StageProfile(
+            String stage,
+            String table,
+            long count,
+            Duration duration,
+            long rows,
+            long bytes,
+            long allocatedBytes,
+            int gcCount,
+            Duration gcPause
+    ) {
+    }
+
+    private record StageSpan(
+            String stage,
+            String table,
+            long threadId,
+            Instant start,
+            Instant end,
+            long rows,
+            long bytes
+    ) {
+
+        String key() {
+            return table == null ? stage : stage + ":" + table;
+        }
+    }
+
+    /**
+     * Spans of one thread sorted by start, each linked to the span enclosing it, so the innermost span
+     * running at an instant is found by binary search and a walk up the enclosing spans.
+     */
+    private static final class ThreadSpans {
+
+        private final StageSpan[] spans;
+        private final int[] parents;
+
+        private ThreadSpans(List<StageSpan> threadSpans) {
+            spans = threadSpans.toArray(StageSpan[]::new);
+            Arrays.sort(spans, SPAN_ORDER);
+            parents = new int[spans.length];
+            ArrayDeque<Integer> open = new ArrayDeque<>();
+            for (int index = 0; index < spans.length; index++) {
+                while (!open.isEmpty() && spans[open.peek()].end().isBefore(spans[index].start())) {
+                    open.pop();
+                }
+                parents[index] = open.isEmpty() ? -1 : open.peek();
+                open.push(index);
+            }
+        }
+
+        private StageSpan innermost(Instant instant) {
+            int low = 0;
+            int high = spans.length - 1;
+            int index = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (spans[middle].start().isAfter(instant)) {
+                    high = middle - 1;
+                } else {
+                    index = middle;
+                    low = middle + 1;
+                }
+            }
+            while (index >= 0 && spans[index].end().isBefore(instant)) {
+                index = parents[index];
+            }
+            return index < 0 ? null : spans[index];
+        }
+    }
+
+    private static final class StageTotals {
+
+        private final String stage;
+        private final String table;
+        private long count;
+        private Duration duration = Duration.ZERO;
+        private long rows;
+        private long bytes;
+        private long allocatedBytes;
+        private int gcCount;
+        private Duration gcPause = Duration.ZERO;
+
+        private StageTotals(String stage, String table) {
+            this.stage = stage;
+            this.table = table;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.testex.application.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.testex.IngestionStage")
+@Label("Ingestion Stage")
+@Category({"Testex", "Ingestion"})
+@Description("Fetch, parse, table build or repository write of the catalog ingestion")
+@StackTrace(false)
+public class IngestionStageEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Table")
+    String table;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
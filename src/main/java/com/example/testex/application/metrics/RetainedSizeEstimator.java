@@ -0,0 +1,179 @@
+package com.example.testex.application.metrics;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the heap retained by an object graph on a 64-bit JVM with compressed references. Application
+ * objects are walked through their fields; strings, arrays, boxed values and the common collections are
+ * sized from their contents, and other JDK objects count only their header. Objects reachable through
+ * several paths are counted once per estimate.
+ */
+final class RetainedSizeEstimator {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final String APPLICATION_PACKAGE = "com.example.testex.";
+
+    private final Map<Class<?>, List<Field>> fieldsByClass = new ConcurrentHashMap<>();
+
+    long estimate(Object root) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        long total = 0;
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (object instanceof Class<?> || object instanceof Enum<?> || !visited.add(object)) {
+                continue;
+            }
+            total += shallowSize(object, pending);
+        }
+        return total;
+    }
+
+    private long shallowSize(Object object, Deque<Object> pending) {
+        Class<?> type = object.getClass();
+        if (object instanceof String string) {
+            long valueBytes = (long) string.length() * (isLatin1(string) ? 1 : 2);
+            return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + valueBytes);
+        }
+        if (type.isArray()) {
+            return arraySize(object, type.getComponentType(), pending);
+        }
+        if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+            return object instanceof BigDecimal decimal
+                    ? align(OBJECT_HEADER + 28) + align(ARRAY_HEADER + decimal.unscaledValue().bitLength() / 8 + 4)
+                    : align(OBJECT_HEADER + 8);
+        }
+        if (object instanceof Map<?, ?> map && !isApplicationClass(type)) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                push(pending, entry.getKey());
+                push(pending, entry.getValue());
+            }
+            if (object instanceof HashMap<?, ?>) {
+                int entrySize = object instanceof LinkedHashMap<?, ?> ? 40 : 32;
+                return align(OBJECT_HEADER + 44) + align(ARRAY_HEADER + (long) tableCapacity(map.size()) * REFERENCE)
+                        + (long) map.size() * entrySize;
+            }
+            return align(OBJECT_HEADER + 16) + (long) map.size() * (2L * REFERENCE + 16);
+        }
+        if (object instanceof Collection<?> collection && !isApplicationClass(type)) {
+            for (Object element : collection) {
+                push(pending, element);
+            }
+            if (object instanceof ArrayList<?>) {
+                return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+            }
+            if (object instanceof Set<?>) {
+                return align(OBJECT_HEADER + 4) + align(OBJECT_HEADER + 44)
+                        + align(ARRAY_HEADER + (long) tableCapacity(collection.size()) * REFERENCE)
+                        + (long) collection.size() * 32;
+            }
+            return align(OBJECT_HEADER + 12) + (long) collection.size() * REFERENCE;
+        }
+        if (!isApplicationClass(type)) {
+            return align(OBJECT_HEADER + 4);
+        }
+
+        long size = OBJECT_HEADER;
+        for (Field field : fields(type)) {
+            Class<?> fieldType = field.getType();
+            size += fieldType.isPrimitive() ? primitiveSize(fieldType) : REFERENCE;
+            if (!fieldType.isPrimitive()) {
+                try {
+                    push(pending, field.get(object));
+                } catch (IllegalAccessException exception) {
+                    throw new IllegalStateException("Cannot read " + field, exception);
+                }
+            }
+        }
+        return align(size);
+    }
+
+    private long arraySize(Object array, Class<?> componentType, Deque<Object> pending) {
+        int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+        }
+        Object[] elements = (Object[]) array;
+        for (Object element : elements) {
+            push(pending, element);
+        }
+        return align(ARRAY_HEADER + (long) length * REFERENCE);
+    }
+
+    private void push(Deque<Object> pending, Object object) {
+        if (object != null) {
+            pending.push(object);
+        }
+    }
+
+    private List<Field> fields(Class<?> type) {
+        return fieldsByClass.computeIfAbsent(type, key -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = key; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && isApplicationClass(current)) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields;
+        });
+    }
+
+    private boolean isApplicationClass(Class<?> type) {
+        return type.getName().startsWith(APPLICATION_PACKAGE);
+    }
+
+    private boolean isLatin1(String value) {
+        for (int index = 0; index < value.length(); index++) {
+            if (value.charAt(index) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int tableCapacity(int size) {
+        int capacity = 16;
+        while (capacity * 0.75 < size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.testex.application.parser;
+
+import com.example.testex.domain.model.OfferBatch;
+import com.example.testex.domain.model.TableData;
+
+public interface CatalogStreamListener {
+
+    default void onFeed(String revision) {
+    }
+
+    void onTable(TableData tableData);
+
+    void onOfferBatch(OfferBatch offerBatch);
+
+    default void onCatalogEnd() {
+    }
+}
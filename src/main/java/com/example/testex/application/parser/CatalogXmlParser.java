@@ -1,139 +1,236 @@
 package com.example.testex.application.parser;
 
 import com.example.testex.application.config.XmlParserSecurityProperties;
+import com.example.testex.application.metrics.IngestionMetrics;
+import com.example.testex.domain.model.ColumnData;
 import com.example.testex.domain.model.ColumnSpec;
+import com.example.testex.domain.model.ColumnStats;
 import com.example.testex.domain.model.ColumnType;
+import com.example.testex.domain.model.OfferBatch;
 import com.example.testex.domain.model.OfferMeta;
 import com.example.testex.domain.model.OfferParam;
 import com.example.testex.domain.model.OfferVendor;
 import com.example.testex.domain.model.ParsedCatalog;
 import com.example.testex.domain.model.TableData;
 import com.example.testex.domain.util.ColumnNameNormalizer;
-import groovy.xml.XmlSlurper;
-import groovy.xml.XmlUtil;
-import groovy.xml.slurpersupport.GPathResult;
-import java.io.ByteArrayInputStream;
+import com.example.testex.domain.util.SqlValueParser;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-import org.springframework.beans.factory.annotation.Value;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 @Component
 public class CatalogXmlParser {
 
-    private final String xmlUrl;
+    public static final List<String> TABLE_NAMES = List.of("currency", "categories", "offers");
+
+    private static final String DISALLOW_DOCTYPE_FEATURE = "http://apache.org/xml/features/disallow-doctype-decl";
+    private static final String EXTERNAL_GENERAL_ENTITIES_FEATURE =
+            "http://xml.org/sax/features/external-general-entities";
+    private static final String EXTERNAL_PARAMETER_ENTITIES_FEATURE =
+            "http://xml.org/sax/features/external-parameter-entities";
+
+    private final FeedFetcher feedFetcher;
     private final ColumnNameNormalizer columnNameNormalizer;
     private final XmlParserSecurityProperties xmlParserSecurityProperties;
+    private final SqlValueParser sqlValueParser;
+    private final IngestionMetrics ingestionMetrics;
 
     public CatalogXmlParser(
-            @Value("${app.xml-url}") String xmlUrl,
-            XmlParserSecurityProperties xmlParserSecurityProperties
+            FeedFetcher feedFetcher,
+            XmlParserSecurityProperties xmlParserSecurityProperties,
+            IngestionMetrics ingestionMetrics
     ) {
-        this.xmlUrl = xmlUrl;
+        this.feedFetcher = feedFetcher;
         this.xmlParserSecurityProperties = xmlParserSecurityProperties;
+        this.ingestionMetrics = ingestionMetrics;
         this.columnNameNormalizer = new ColumnNameNormalizer();
+        this.sqlValueParser = new SqlValueParser();
     }
 
     public ParsedCatalog parse() {
-        Document document = parseDocumentWithXmlSlurper();
-        List<OfferVendor> offerVendors = new ArrayList<>();
-        List<OfferMeta> offerMetas = new ArrayList<>();
-        List<OfferParam> offerParams = new ArrayList<>();
+        return parse(feedFetcher.fetch());
+    }
 
-        LinkedHashMap<String, TableData> tables = new LinkedHashMap<>();
-        tables.put("currency", buildTableData("currency", readCurrencyRows(document)));
-        tables.put("categories", buildTableData("categories", readCategoryRows(document)));
-        tables.put("offers", buildTableData("offers", readOfferRows(document, offerVendors, offerMetas, offerParams)));
-        return new ParsedCatalog(tables, offerVendors, offerMetas, offerParams);
+    public TableData parseTable(String tableName) {
+        return parseTable(feedFetcher.fetch(), tableName);
+    }
+
+    public UnaryOperator<ParsedCatalog> catalogLoader() {
+        return ifModified(this::parse);
+    }
+
+    public UnaryOperator<TableData> tableLoader(String tableName) {
+        return ifModified(feed -> parseTable(feed, tableName));
+    }
+
+    public void stream(int batchSize, CatalogStreamListener listener) {
+        stream(feedFetcher.fetch(), batchSize, listener);
+    }
+
+    private <T> UnaryOperator<T> ifModified(Function<FeedFetcher.FetchedFeed, T> parser) {
+        AtomicReference<String> parsedRevision = new AtomicReference<>();
+        return previous -> {
+            FeedFetcher.FetchedFeed feed = feedFetcher.fetch();
+            if (previous != null && feed.revision() != null && feed.revision().equals(parsedRevision.get())) {
+                return previous;
+            }
+            T parsed = parser.apply(feed);
+            parsedRevision.set(feed.revision());
+            return parsed;
+        };
     }
 
-    private Document parseDocumentWithXmlSlurper() {
-        try {
-            XmlSlurper xmlSlurper = new XmlSlurper();
-            String xmlContent;
-            try (InputStream inputStream = URI.create(xmlUrl).toURL().openStream()) {
-                xmlContent = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    private ParsedCatalog parse(FeedFetcher.FetchedFeed feed) {
+        LinkedHashMap<String, TableData> tables = new LinkedHashMap<>();
+        List<OfferBatch> offerBatches = new ArrayList<>(1);
+        stream(feed, Integer.MAX_VALUE, new CatalogStreamListener() {
+            @Override
+            public void onTable(TableData tableData) {
+                tables.put(tableData.tableName(), tableData);
             }
-            xmlContent = xmlContent.replaceAll("(?is)<!DOCTYPE[^>]*>", "");
-            GPathResult parsed = xmlSlurper.parseText(xmlContent);
-            String serialized = XmlUtil.serialize(parsed);
-
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(false);
-            for (XmlParserSecurityProperties.Feature feature : xmlParserSecurityProperties.getFeatures()) {
-                factory.setFeature(feature.getUri(), feature.isEnabled());
+
+            @Override
+            public void onOfferBatch(OfferBatch offerBatch) {
+                offerBatches.add(offerBatch);
             }
-            factory.setXIncludeAware(false);
-            factory.setExpandEntityReferences(false);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            try (ByteArrayInputStream stream = new ByteArrayInputStream(serialized.getBytes(StandardCharsets.UTF_8))) {
-                return builder.parse(stream);
+        });
+
+        OfferBatch offers = offerBatches.get(0);
+        tables.put("offers", offers.offers());
+        return new ParsedCatalog(tables, offers.offerVendors(), offers.offerMetas(), offers.offerParams());
+    }
+
+    private TableData parseTable(FeedFetcher.FetchedFeed feed, String tableName) {
+        String section = switch (tableName) {
+            case "currency" -> "currencies";
+            case "categories" -> "categories";
+            default -> throw new IllegalArgumentException("Section parsing is not supported for table: " + tableName);
+        };
+        CatalogReadState state = new CatalogReadState(Integer.MAX_VALUE, null, section);
+        read(feed, state);
+        return buildTableData(tableName, "currency".equals(tableName) ? state.currencyRows : state.categoryRows);
+    }
+
+    private void stream(FeedFetcher.FetchedFeed feed, int batchSize, CatalogStreamListener listener) {
+        listener.onFeed(feed.revision());
+        CatalogReadState state = new CatalogReadState(batchSize, listener, null);
+        read(feed, state);
+        flushOffers(state, true);
+    }
+
+    private void read(FeedFetcher.FetchedFeed feed, CatalogReadState state) {
+        IngestionMetrics.Sample sample = ingestionMetrics.start();
+        try (CountingInputStream inputStream = new CountingInputStream(feed.openStream())) {
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(inputStream);
+            try {
+                readCatalog(reader, state);
+            } finally {
+                reader.close();
             }
-        } catch (SAXException exception) {
-            throw new IllegalStateException("Failed to parse XML with XmlSlurper", exception);
-        } catch (Exception exception) {
+            long parsedRows = state.flushedRows + state.currencyRows.rowCount() + state.categoryRows.rowCount()
+                    + state.offerRows.rowCount();
+            ingestionMetrics.recordParse(sample, state.onlySection == null ? "all" : state.onlySection, parsedRows,
+                    inputStream.count, state.flushNanos);
+        } catch (XMLStreamException exception) {
+            throw new IllegalStateException("Failed to parse XML catalog", exception);
+        } catch (IOException exception) {
             throw new IllegalStateException("Failed to load XML catalog", exception);
         }
     }
 
-    private List<Map<String, String>> readCurrencyRows(Document document) {
-        List<Map<String, String>> rows = new ArrayList<>();
-        NodeList nodes = selectNodes(document, "/yml_catalog/shop/currencies/currency");
-        for (int index = 0; index < nodes.getLength(); index++) {
-            Element element = (Element) nodes.item(index);
-            LinkedHashMap<String, String> row = new LinkedHashMap<>();
-            addAttributes(element, row);
-            rows.add(row);
+    private XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // A disallowed DOCTYPE is skipped without being processed, as the old regex strip did.
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD,
+                !xmlParserSecurityProperties.isFeatureEnabled(DISALLOW_DOCTYPE_FEATURE, true));
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                xmlParserSecurityProperties.isFeatureEnabled(EXTERNAL_GENERAL_ENTITIES_FEATURE, false));
+        if (!xmlParserSecurityProperties.isFeatureEnabled(EXTERNAL_PARAMETER_ENTITIES_FEATURE, false)) {
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
         }
-        return rows;
+        return factory;
     }
 
-    private List<Map<String, String>> readCategoryRows(Document document) {
-        List<Map<String, String>> rows = new ArrayList<>();
-        NodeList nodes = selectNodes(document, "/yml_catalog/shop/categories/category");
-        for (int index = 0; index < nodes.getLength(); index++) {
-            Element element = (Element) nodes.item(index);
-            LinkedHashMap<String, String> row = new LinkedHashMap<>();
-            addAttributes(element, row);
-            String name = safeText(element.getTextContent());
+    private void readCatalog(XMLStreamReader reader, CatalogReadState state) throws XMLStreamException {
+        if (!nextChildElement(reader) || !"yml_catalog".equals(reader.getLocalName())) {
+            return;
+        }
+        while (nextChildElement(reader)) {
+            if (!"shop".equals(reader.getLocalName())) {
+                skipElement(reader);
+                continue;
+            }
+            while (nextChildElement(reader)) {
+                String section = reader.getLocalName();
+                if (state.onlySection != null && !state.onlySection.equals(section)) {
+                    skipElement(reader);
+                    continue;
+                }
+                switch (section) {
+                    case "currencies" -> readCurrencyRows(reader, state.currencyRows);
+                    case "categories" -> readCategoryRows(reader, state.categoryRows);
+                    case "offers" -> readOfferRows(reader, state);
+                    default -> skipElement(reader);
+                }
+                if (state.onlySection != null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void readCurrencyRows(XMLStreamReader reader, TableColumnsBuilder rows) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (!"currency".equals(reader.getLocalName())) {
+                skipElement(reader);
+                continue;
+            }
+            addAttributes(reader, rows);
+            skipElement(reader);
+            rows.endRow();
+        }
+    }
+
+    private void readCategoryRows(XMLStreamReader reader, TableColumnsBuilder rows) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (!"category".equals(reader.getLocalName())) {
+                skipElement(reader);
+                continue;
+            }
+            addAttributes(reader, rows);
+            String name = readText(reader);
             if (!name.isEmpty()) {
-                row.put("name", name);
+                rows.put("name", name);
             }
-            rows.add(row);
+            rows.endRow();
         }
-        return rows;
     }
 
-    private List<Map<String, String>> readOfferRows(
-            Document document,
-            List<OfferVendor> offerVendors,
-            List<OfferMeta> offerMetas,
-            List<OfferParam> offerParams
-    ) {
-        List<Map<String, String>> rows = new ArrayList<>();
-        NodeList nodes = selectNodes(document, "/yml_catalog/shop/offers/offer");
-        for (int index = 0; index < nodes.getLength(); index++) {
-            Element offerElement = (Element) nodes.item(index);
-            String offerId = safeText(offerElement.getAttribute("id"));
-            String available = safeText(offerElement.getAttribute("available"));
+    private void readOfferRows(XMLStreamReader reader, CatalogReadState state) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (!"offer".equals(reader.getLocalName())) {
+                skipElement(reader);
+                continue;
+            }
+            String offerId = safeText(reader.getAttributeValue(null, "id"));
+            String available = safeText(reader.getAttributeValue(null, "available"));
+            Long parsedOfferId = sqlValueParser.parseLong(offerId);
 
             String categoryId = "";
             String currencyId = "";
@@ -147,24 +244,19 @@ public class CatalogXmlParser {
             String name = "";
             String description = "";
 
-            NodeList children = offerElement.getChildNodes();
-            for (int childIndex = 0; childIndex < children.getLength(); childIndex++) {
-                Node childNode = children.item(childIndex);
-                if (childNode.getNodeType() != Node.ELEMENT_NODE) {
-                    continue;
-                }
-                Element childElement = (Element) childNode;
-                String childName = childElement.getTagName();
-                String value = safeText(childElement.getTextContent());
+            while (nextChildElement(reader)) {
+                String childName = reader.getLocalName();
                 if ("param".equals(childName)) {
-                    String paramName = safeText(childElement.getAttribute("name"));
+                    String paramName = safeText(reader.getAttributeValue(null, "name"));
                     String normalizedName = paramName.isEmpty() ? "unnamed" : paramName;
-                    if (!offerId.isEmpty()) {
-                        offerParams.add(new OfferParam(offerId, normalizedName, value));
+                    String value = readText(reader);
+                    if (parsedOfferId != null) {
+                        state.offerParams.add(new OfferParam(parsedOfferId, normalizedName, value));
                     }
                     continue;
                 }
 
+                String value = readText(reader);
                 switch (childName) {
                     case "categoryId" -> categoryId = value;
                     case "currencyId" -> currencyId = value;
@@ -181,39 +273,70 @@ public class CatalogXmlParser {
                 }
             }
 
-            LinkedHashMap<String, String> row = new LinkedHashMap<>();
-            row.put("id", offerId);
-            row.put("categoryId", categoryId);
-            row.put("currencyId", currencyId);
-            row.put("vendorCode", vendorCode);
-            row.put("available", available);
-            row.put("price", price);
-            row.put("count", count);
-            rows.add(row);
-
-            if (!offerId.isEmpty()) {
-                offerVendors.add(new OfferVendor(offerId, vendor, vendorCode));
-                offerMetas.add(new OfferMeta(
-                        offerId,
+            TableColumnsBuilder offerRows = state.offerRows;
+            offerRows.put("id", offerId);
+            offerRows.put("categoryId", categoryId);
+            offerRows.put("currencyId", currencyId);
+            offerRows.put("vendorCode", vendorCode);
+            offerRows.put("available", available);
+            offerRows.put("price", price);
+            offerRows.put("count", count);
+            offerRows.endRow();
+
+            if (parsedOfferId != null) {
+                state.offerVendors.add(new OfferVendor(parsedOfferId, vendor, vendorCode));
+                state.offerMetas.add(new OfferMeta(
+                        parsedOfferId,
                         url,
                         picture,
                         name,
                         description
                 ));
             }
+            if (state.offerRows.rowCount() >= state.batchSize) {
+                flushOffers(state, false);
+            }
         }
-        return rows;
     }
 
-    private TableData buildTableData(String tableName, List<Map<String, String>> rawRows) {
-        LinkedHashSet<String> sourceKeys = new LinkedHashSet<>();
-        for (Map<String, String> rawRow : rawRows) {
-            sourceKeys.addAll(rawRow.keySet());
+    private void flushOffers(CatalogReadState state, boolean endOfDocument) {
+        long started = System.nanoTime();
+        state.flushedRows += state.currencyRows.rowCount() + state.categoryRows.rowCount()
+                + state.offerRows.rowCount();
+        if (!state.tablesEmitted || state.currencyRows.rowCount() > 0) {
+            state.listener.onTable(buildTableData("currency", state.currencyRows));
+            state.currencyRows = new TableColumnsBuilder();
+        }
+        if (!state.tablesEmitted || state.categoryRows.rowCount() > 0) {
+            state.listener.onTable(buildTableData("categories", state.categoryRows));
+            state.categoryRows = new TableColumnsBuilder();
+        }
+        state.tablesEmitted = true;
+
+        if (state.offerRows.rowCount() == 0 && (state.offerBatchesEmitted || !endOfDocument)) {
+            state.flushNanos += System.nanoTime() - started;
+            return;
         }
+        ingestionMetrics.recordOfferBatch(state.offerRows.rowCount(), state.offerParams.size());
+        state.listener.onOfferBatch(new OfferBatch(
+                buildTableData("offers", state.offerRows),
+                state.offerVendors,
+                state.offerMetas,
+                state.offerParams
+        ));
+        state.offerBatchesEmitted = true;
+        state.offerRows = new TableColumnsBuilder();
+        state.offerVendors = new ArrayList<>();
+        state.offerMetas = new ArrayList<>();
+        state.offerParams = new ArrayList<>();
+        state.flushNanos += System.nanoTime() - started;
+    }
 
+    private TableData buildTableData(String tableName, TableColumnsBuilder rows) {
+        IngestionMetrics.Sample sample = ingestionMetrics.start();
         LinkedHashMap<String, String> sourceToColumn = new LinkedHashMap<>();
         Set<String> usedColumnNames = new LinkedHashSet<>();
-        for (String sourceKey : sourceKeys) {
+        for (String sourceKey : rows.sourceKeys()) {
             String baseColumnName = columnNameNormalizer.normalize(sourceKey);
             String candidate = baseColumnName;
             int suffix = 1;
@@ -225,32 +348,15 @@ public class CatalogXmlParser {
             sourceToColumn.put(sourceKey, candidate);
         }
 
-        LinkedHashMap<String, List<String>> valuesByColumn = new LinkedHashMap<>();
-        for (String sourceKey : sourceKeys) {
-            String columnName = sourceToColumn.get(sourceKey);
-            valuesByColumn.put(columnName, new ArrayList<>());
-        }
-        for (Map<String, String> rawRow : rawRows) {
-            for (String sourceKey : sourceKeys) {
-                String columnName = sourceToColumn.get(sourceKey);
-                valuesByColumn.get(columnName).add(rawRow.get(sourceKey));
-            }
-        }
-
         LinkedHashMap<String, ColumnSpec> columns = new LinkedHashMap<>();
-        for (String sourceKey : sourceKeys) {
+        LinkedHashMap<String, ColumnData> columnData = new LinkedHashMap<>();
+        LinkedHashMap<String, ColumnStats> columnStats = new LinkedHashMap<>();
+        for (String sourceKey : rows.sourceKeys()) {
             String columnName = sourceToColumn.get(sourceKey);
-            ColumnType columnType = inferColumnType(valuesByColumn.get(columnName));
+            ColumnType columnType = rows.columnType(sourceKey);
             columns.put(columnName, new ColumnSpec(sourceKey, columnName, columnType));
-        }
-
-        List<Map<String, String>> normalizedRows = new ArrayList<>();
-        for (Map<String, String> rawRow : rawRows) {
-            LinkedHashMap<String, String> normalizedRow = new LinkedHashMap<>();
-            for (String sourceKey : sourceKeys) {
-                normalizedRow.put(sourceToColumn.get(sourceKey), rawRow.get(sourceKey));
-            }
-            normalizedRows.add(normalizedRow);
+            columnData.put(columnName, ColumnData.encode(rows.values(sourceKey), columnType));
+            columnStats.put(columnName, rows.columnStats(sourceKey));
         }
 
         String idColumn = sourceToColumn.getOrDefault("id", null);
@@ -258,81 +364,130 @@ public class CatalogXmlParser {
             idColumn = columns.keySet().iterator().next();
         }
 
-        return new TableData(tableName, idColumn, columns, normalizedRows);
+        TableData tableData = new TableData(tableName, idColumn, columns, columnData, columnStats, rows.rowCount());
+        ingestionMetrics.recordTableBuild(sample, tableData);
+        return tableData;
     }
 
-    private ColumnType inferColumnType(List<String> values) {
-        boolean allBoolean = true;
-        boolean allInteger = true;
-        boolean allDecimal = true;
-        int nonEmptyValues = 0;
-
-        for (String value : values) {
-            if (value == null || value.isBlank()) {
-                continue;
+    private boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
             }
-            nonEmptyValues++;
-
-            if (!isBoolean(value)) {
-                allBoolean = false;
-            }
-
-            if (!isInteger(value)) {
-                allInteger = false;
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
             }
+        }
+        return false;
+    }
 
-            if (!isDecimal(value)) {
-                allDecimal = false;
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
             }
         }
+    }
 
-        if (nonEmptyValues == 0) {
-            return ColumnType.TEXT;
-        }
-        if (allBoolean) {
-            return ColumnType.BOOLEAN;
-        }
-        if (allInteger) {
-            return ColumnType.BIGINT;
+    private String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = null;
+        String single = null;
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    if (single == null) {
+                        single = reader.getText();
+                    } else {
+                        if (text == null) {
+                            text = new StringBuilder(single);
+                        }
+                        text.append(reader.getText());
+                    }
+                }
+                default -> {
+                }
+            }
         }
-        if (allDecimal) {
-            return ColumnType.NUMERIC;
+        if (text != null) {
+            return safeText(text.toString());
         }
-        return ColumnType.TEXT;
+        return safeText(single);
     }
 
-    private boolean isBoolean(String value) {
-        String normalized = value.trim();
-        return "true".equalsIgnoreCase(normalized) || "false".equalsIgnoreCase(normalized);
+    private void addAttributes(XMLStreamReader reader, TableColumnsBuilder rows) {
+        for (int attributeIndex = 0; attributeIndex < reader.getAttributeCount(); attributeIndex++) {
+            rows.put(reader.getAttributeLocalName(attributeIndex),
+                    safeText(reader.getAttributeValue(attributeIndex)));
+        }
     }
 
-    private boolean isInteger(String value) {
-        String normalized = value.trim().replace(" ", "").replace(",", "");
-        return normalized.matches("-?\\d+");
+    private String safeText(String value) {
+        return value == null ? "" : value.trim();
     }
 
-    private boolean isDecimal(String value) {
-        String normalized = value.trim().replace(" ", "").replace(",", ".");
-        return normalized.matches("-?\\d+(\\.\\d+)?");
+    private static final class CatalogReadState {
+
+        private final int batchSize;
+        private final CatalogStreamListener listener;
+        private final String onlySection;
+        private TableColumnsBuilder currencyRows = new TableColumnsBuilder();
+        private TableColumnsBuilder categoryRows = new TableColumnsBuilder();
+        private TableColumnsBuilder offerRows = new TableColumnsBuilder();
+        private List<OfferVendor> offerVendors = new ArrayList<>();
+        private List<OfferMeta> offerMetas = new ArrayList<>();
+        private List<OfferParam> offerParams = new ArrayList<>();
+        private boolean tablesEmitted;
+        private boolean offerBatchesEmitted;
+        private long flushedRows;
+        private long flushNanos;
+
+        private CatalogReadState(int batchSize, CatalogStreamListener listener, String onlySection) {
+            this.batchSize = batchSize;
+            this.listener = listener;
+            this.onlySection = onlySection;
+        }
     }
 
-    private NodeList selectNodes(Document document, String xpathExpression) {
-        try {
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            return (NodeList) xpath.evaluate(xpathExpression, document, XPathConstants.NODESET);
-        } catch (XPathExpressionException exception) {
-            throw new IllegalStateException("Invalid xpath: " + xpathExpression, exception);
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream inputStream) {
+            super(inputStream);
         }
-    }
 
-    private void addAttributes(Element element, Map<String, String> targetRow) {
-        for (int attributeIndex = 0; attributeIndex < element.getAttributes().getLength(); attributeIndex++) {
-            Node attribute = element.getAttributes().item(attributeIndex);
-            targetRow.put(attribute.getNodeName(), safeText(attribute.getNodeValue()));
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
         }
-    }
 
-    private String safeText(String value) {
-        return value == null ? "" : value.trim();
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long bytes) throws IOException {
+            long skipped = super.skip(bytes);
+            count += skipped;
+            return skipped;
+        }
     }
 }
@@ -0,0 +1,109 @@
+package com.example.testex.application.parser;
+
+import com.example.testex.domain.model.ColumnType;
+
+final class ColumnTypeInference {
+
+    private boolean allBoolean = true;
+    private boolean allInteger = true;
+    private boolean allDecimal = true;
+    private boolean hasValues;
+    private boolean lastValueIsLong;
+    private long lastLongValue;
+
+    void accept(String value) {
+        lastValueIsLong = false;
+        if (value == null || (hasValues && !allBoolean && !allInteger && !allDecimal) || value.isBlank()) {
+            return;
+        }
+        hasValues = true;
+
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        if (allBoolean) {
+            int length = end - start;
+            allBoolean = (length == 4 && value.regionMatches(true, start, "true", 0, 4))
+                    || (length == 5 && value.regionMatches(true, start, "false", 0, 5));
+        }
+
+        boolean integer = allInteger;
+        boolean decimal = allDecimal;
+        int integerState = 0;
+        int decimalState = 0;
+        long negatedValue = 0;
+        boolean negative = false;
+        boolean overflow = false;
+        for (int index = start; index < end && (integer || decimal); index++) {
+            char character = value.charAt(index);
+            if (character == ' ') {
+                continue;
+            }
+            boolean digit = character >= '0' && character <= '9';
+            if (integer && character != ',') {
+                if (character == '-' && integerState == 0) {
+                    integerState = 1;
+                    negative = true;
+                } else if (digit) {
+                    integerState = 2;
+                    int digitValue = character - '0';
+                    if (negatedValue < (Long.MIN_VALUE + digitValue) / 10) {
+                        overflow = true;
+                    } else {
+                        negatedValue = negatedValue * 10 - digitValue;
+                    }
+                } else {
+                    integer = false;
+                }
+            }
+            if (decimal) {
+                if (character == '-' && decimalState == 0) {
+                    decimalState = 1;
+                } else if (digit) {
+                    decimalState = decimalState <= 2 ? 2 : 4;
+                } else if ((character == '.' || character == ',') && decimalState == 2) {
+                    decimalState = 3;
+                } else {
+                    decimal = false;
+                }
+            }
+        }
+        allInteger = integer && integerState == 2;
+        allDecimal = decimal && (decimalState == 2 || decimalState == 4);
+
+        if (allInteger && !overflow && (negative || negatedValue != Long.MIN_VALUE)) {
+            lastValueIsLong = true;
+            lastLongValue = negative ? negatedValue : -negatedValue;
+        }
+    }
+
+    boolean lastValueIsLong() {
+        return lastValueIsLong;
+    }
+
+    long lastLongValue() {
+        return lastLongValue;
+    }
+
+    ColumnType columnType() {
+        if (!hasValues) {
+            return ColumnType.TEXT;
+        }
+        if (allBoolean) {
+            return ColumnType.BOOLEAN;
+        }
+        if (allInteger) {
+            return ColumnType.BIGINT;
+        }
+        if (allDecimal) {
+            return ColumnType.NUMERIC;
+        }
+        return ColumnType.TEXT;
+    }
+}
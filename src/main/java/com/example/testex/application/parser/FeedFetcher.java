@@ -0,0 +1,208 @@
+package com.example.testex.application.parser;
+
+import com.example.testex.application.config.FeedProperties;
+import com.example.testex.application.metrics.IngestionMetrics;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FeedFetcher {
+
+    private static final String ETAG_KEY = "etag";
+    private static final String LAST_MODIFIED_KEY = "last-modified";
+    private static final String URL_KEY = "url";
+    private static final ConcurrentHashMap<Path, Object> SPOOL_LOCKS = new ConcurrentHashMap<>();
+
+    private final String xmlUrl;
+    private final FeedProperties feedProperties;
+    private final HttpClient httpClient;
+    private final IngestionMetrics ingestionMetrics;
+
+    public FeedFetcher(
+            @Value("${app.xml-url}") String xmlUrl,
+            FeedProperties feedProperties,
+            IngestionMetrics ingestionMetrics
+    ) {
+        this.xmlUrl = xmlUrl;
+        this.feedProperties = feedProperties;
+        this.ingestionMetrics = ingestionMetrics;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(feedProperties.getConnectTimeout())
+                .build();
+    }
+
+    public FetchedFeed fetch() {
+        IngestionMetrics.Sample sample = ingestionMetrics.start();
+        URI uri = URI.create(xmlUrl);
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (scheme.equals("file")) {
+            Path file = Path.of(uri);
+            FetchedFeed feed = new FetchedFeed(uri, null, fileRevision(file));
+            ingestionMetrics.recordFetch(sample, "file", "local", fileSize(file));
+            return feed;
+        }
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            ingestionMetrics.recordFetch(sample, scheme, "direct", -1);
+            return new FetchedFeed(uri, null, null);
+        }
+        try {
+            return fetchHttp(uri, sample);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to download XML catalog", exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while downloading XML catalog", exception);
+        }
+    }
+
+    private FetchedFeed fetchHttp(URI uri, IngestionMetrics.Sample sample) throws IOException, InterruptedException {
+        Path spoolDir = Path.of(feedProperties.getSpoolDir());
+        Files.createDirectories(spoolDir);
+        String spoolName = Integer.toUnsignedString(xmlUrl.hashCode(), 16);
+        Path spoolFile = spoolDir.resolve(spoolName + ".xml").toAbsolutePath();
+        synchronized (SPOOL_LOCKS.computeIfAbsent(spoolFile, key -> new Object())) {
+            return fetchHttp(uri, sample, spoolDir, spoolName, spoolFile);
+        }
+    }
+
+    /**
+     * Runs under the lock of the spool file, so concurrent fetches of one url send the validators of the previous
+     * download instead of racing on the same spool. The spool and the metadata are replaced by atomic moves, the
+     * metadata last and after dropping the old one, so a crash in between costs a full download instead of pairing
+     * a new spool with old validators.
+     */
+    private FetchedFeed fetchHttp(
+            URI uri,
+            IngestionMetrics.Sample sample,
+            Path spoolDir,
+            String spoolName,
+            Path spoolFile
+    ) throws IOException, InterruptedException {
+        Path metadataFile = spoolDir.resolve(spoolName + ".properties");
+        Properties metadata = readMetadata(metadataFile);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(feedProperties.getRequestTimeout())
+                .GET();
+        boolean conditional = feedProperties.isConditionalFetch()
+                && Files.isRegularFile(spoolFile)
+                && xmlUrl.equals(metadata.getProperty(URL_KEY));
+        if (conditional) {
+            String etag = metadata.getProperty(ETAG_KEY);
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            String lastModified = metadata.getProperty(LAST_MODIFIED_KEY);
+            if (lastModified != null) {
+                request.header("If-Modified-Since", lastModified);
+            }
+        }
+
+        Path downloadFile = Files.createTempFile(spoolDir, spoolName, ".part");
+        try {
+            HttpResponse<Path> response = httpClient.send(request.build(), responseInfo ->
+                    responseInfo.statusCode() == 200
+                            ? HttpResponse.BodySubscribers.ofFile(downloadFile)
+                            : HttpResponse.BodySubscribers.replacing(null));
+
+            if (response.statusCode() == 304 && conditional) {
+                ingestionMetrics.recordFetch(sample, "http", "not-modified", 0);
+                return new FetchedFeed(uri, spoolFile, revision(metadata));
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Failed to download XML catalog: HTTP " + response.statusCode());
+            }
+
+            Files.deleteIfExists(metadataFile);
+            Files.move(downloadFile, spoolFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Properties updated = new Properties();
+            updated.setProperty(URL_KEY, xmlUrl);
+            response.headers().firstValue("ETag").ifPresent(value -> updated.setProperty(ETAG_KEY, value));
+            response.headers().firstValue("Last-Modified")
+                    .ifPresent(value -> updated.setProperty(LAST_MODIFIED_KEY, value));
+            writeMetadata(spoolDir, spoolName, metadataFile, updated);
+            ingestionMetrics.recordFetch(sample, "http", "downloaded", Files.size(spoolFile));
+            return new FetchedFeed(uri, spoolFile, revision(updated));
+        } finally {
+            Files.deleteIfExists(downloadFile);
+        }
+    }
+
+    private String revision(Properties metadata) {
+        String etag = metadata.getProperty(ETAG_KEY);
+        if (etag != null) {
+            return etag;
+        }
+        return metadata.getProperty(LAST_MODIFIED_KEY);
+    }
+
+    private String fileRevision(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file);
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private long fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException exception) {
+            return -1;
+        }
+    }
+
+    private Properties readMetadata(Path metadataFile) throws IOException {
+        Properties metadata = new Properties();
+        if (Files.isRegularFile(metadataFile)) {
+            try (Reader reader = Files.newBufferedReader(metadataFile, StandardCharsets.UTF_8)) {
+                metadata.load(reader);
+            }
+        }
+        return metadata;
+    }
+
+    private void writeMetadata(Path spoolDir, String spoolName, Path metadataFile, Properties metadata)
+            throws IOException {
+        Path tempFile = Files.createTempFile(spoolDir, spoolName, ".properties.part");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                metadata.store(outputStream, null);
+            }
+            Files.move(tempFile, metadataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public record FetchedFeed(
+            URI source,
+            Path spoolFile,
+            String revision
+    ) {
+
+        public InputStream openStream() throws IOException {
+            if (spoolFile != null) {
+                return new BufferedInputStream(Files.newInputStream(spoolFile), 64 * 1024);
+            }
+            return source.toURL().openStream();
+        }
+    }
+}
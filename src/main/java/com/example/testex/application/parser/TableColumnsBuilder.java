@@ -0,0 +1,81 @@
+package com.example.testex.application.parser;
+
+import com.example.testex.domain.model.ColumnStats;
+import com.example.testex.domain.model.ColumnType;
+import com.example.testex.domain.util.ColumnStatsCollector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+final class TableColumnsBuilder {
+
+    private final LinkedHashMap<String, Column> columns = new LinkedHashMap<>();
+    private int rowCount;
+
+    void put(String sourceKey, String value) {
+        Column column = columns.get(sourceKey);
+        if (column == null) {
+            column = new Column(rowCount);
+            columns.put(sourceKey, column);
+        }
+        if (column.values.size() > rowCount) {
+            column.values.set(rowCount, value);
+        } else {
+            column.values.add(value);
+        }
+    }
+
+    void endRow() {
+        for (Column column : columns.values()) {
+            if (column.values.size() == rowCount) {
+                column.values.add(null);
+                column.stats.accept(null);
+                continue;
+            }
+            String value = column.values.get(rowCount);
+            column.inference.accept(value);
+            column.stats.accept(value);
+            if (column.inference.lastValueIsLong()) {
+                column.stats.acceptLong(column.inference.lastLongValue());
+            }
+        }
+        rowCount++;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    Set<String> sourceKeys() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    List<String> values(String sourceKey) {
+        return columns.get(sourceKey).values;
+    }
+
+    ColumnType columnType(String sourceKey) {
+        return columns.get(sourceKey).inference.columnType();
+    }
+
+    ColumnStats columnStats(String sourceKey) {
+        Column column = columns.get(sourceKey);
+        return column.stats.build(column.inference.columnType());
+    }
+
+    private static final class Column {
+
+        private final List<String> values;
+        private final ColumnTypeInference inference = new ColumnTypeInference();
+        private final ColumnStatsCollector stats = new ColumnStatsCollector();
+
+        private Column(int precedingRows) {
+            this.values = new ArrayList<>(Collections.nCopies(precedingRows, null));
+            for (int row = 0; row < precedingRows; row++) {
+                stats.accept(null);
+            }
+        }
+    }
+}
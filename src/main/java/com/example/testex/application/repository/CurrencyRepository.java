@@ -1,9 +1,8 @@
 package com.example.testex.application.repository;
 
-import java.util.List;
-import java.util.Map;
+import com.example.testex.domain.model.TableData;
 
 public interface CurrencyRepository {
 
-    void upsert(List<Map<String, String>> rows);
+    void upsert(TableData tableData);
 }
@@ -0,0 +1,18 @@
+package com.example.testex.application.repository;
+
+import com.example.testex.domain.model.IngestionRun;
+import com.example.testex.domain.model.SyncReport;
+import java.util.Map;
+
+public interface IngestionCheckpointRepository {
+
+    IngestionRun findResumableRun(String feedVersion, int chunkSize);
+
+    IngestionRun startRun(String feedVersion, int chunkSize);
+
+    void updateStatus(long runId, IngestionRun.Status status);
+
+    Map<Integer, SyncReport> findCommittedChunks(long runId);
+
+    void commitChunk(long runId, int chunkIndex, int offerCount, SyncReport report);
+}
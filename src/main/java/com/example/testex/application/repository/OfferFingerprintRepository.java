@@ -0,0 +1,11 @@
+package com.example.testex.application.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface OfferFingerprintRepository {
+
+    Map<Long, Long> findByOfferIds(Set<Long> offerIds);
+
+    void upsert(Map<Long, Long> fingerprintsByOfferId);
+}
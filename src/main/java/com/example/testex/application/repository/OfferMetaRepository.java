@@ -7,4 +7,6 @@ import java.util.Set;
 public interface OfferMetaRepository {
 
     void replaceForOffers(Set<Long> offerIds, List<OfferMeta> offerMetas);
+
+    void bulkReplaceForOffers(Set<Long> offerIds, List<OfferMeta> offerMetas);
 }
@@ -7,4 +7,6 @@ import java.util.Set;
 public interface OfferParamsRepository {
 
     void replaceForOffers(Set<Long> offerIds, List<OfferParam> offerParams);
+
+    void bulkReplaceForOffers(Set<Long> offerIds, List<OfferParam> offerParams);
 }
@@ -0,0 +1,22 @@
+package com.example.testex.application.repository;
+
+import java.util.Collection;
+
+public interface OfferRemovalRepository {
+
+    void clearFeedOfferIds();
+
+    void stageFeedOfferIds(Collection<Long> offerIds);
+
+    long countFeedOfferIds();
+
+    long countOffers();
+
+    long countMissingOffers();
+
+    long countAvailableMissingOffers();
+
+    int deleteMissingOffers(int limit);
+
+    int markMissingOffersUnavailable(int limit);
+}
@@ -0,0 +1,32 @@
+package com.example.testex.application.repository;
+
+import com.example.testex.domain.model.OfferMeta;
+import com.example.testex.domain.model.OfferParam;
+import com.example.testex.domain.model.OfferVendor;
+import com.example.testex.domain.model.TableData;
+import java.util.List;
+
+public interface OfferStagingRepository {
+
+    void lock();
+
+    long nextBatchId();
+
+    void deleteBatchesBefore(long batchId);
+
+    void discard(long batchId);
+
+    long stageCurrencies(long batchId, TableData currency);
+
+    long stageCategories(long batchId, TableData categories);
+
+    long stageVendors(long batchId, List<OfferVendor> offerVendors);
+
+    long stageOffers(long batchId, TableData offers, int[] rows);
+
+    long stageOfferMetas(long batchId, List<OfferMeta> offerMetas);
+
+    long stageOfferParams(long batchId, List<OfferParam> offerParams);
+
+    void publish(long batchId, boolean bulk);
+}
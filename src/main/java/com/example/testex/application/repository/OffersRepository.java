@@ -1,10 +1,9 @@
 package com.example.testex.application.repository;
 
-import java.util.List;
-import java.util.Map;
+import com.example.testex.domain.model.TableData;
 import java.util.Set;
 
 public interface OffersRepository {
 
-    Set<Long> upsert(List<Map<String, String>> rows);
+    Set<Long> upsert(TableData tableData);
 }
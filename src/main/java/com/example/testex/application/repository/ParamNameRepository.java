@@ -0,0 +1,9 @@
+package com.example.testex.application.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ParamNameRepository {
+
+    Map<String, Integer> resolveIds(Collection<String> paramNames);
+}
@@ -0,0 +1,8 @@
+package com.example.testex.application.repository;
+
+import com.example.testex.domain.model.SchemaSnapshot;
+
+public interface SchemaMetadataRepository {
+
+    SchemaSnapshot loadSnapshot(String schemaName);
+}
@@ -0,0 +1,35 @@
+package com.example.testex.application.repository;
+
+import com.example.testex.domain.model.OfferMeta;
+import com.example.testex.domain.model.OfferParam;
+import com.example.testex.domain.model.SchemaSnapshot;
+import com.example.testex.domain.model.TableData;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ShadowTableRepository {
+
+    void create(String tableName);
+
+    void drop(String tableName);
+
+    Set<Long> loadOffers(TableData offers);
+
+    long loadOfferMetas(Set<Long> offerIds, List<OfferMeta> offerMetas);
+
+    long loadOfferParams(Set<Long> offerIds, List<OfferParam> offerParams);
+
+    long loadFingerprints(Map<Long, Long> fingerprintsByOfferId);
+
+    long countOffersMissingFromShadow();
+
+    void addConstraints(SchemaSnapshot.Table table, Collection<String> constraintTypes, Set<String> swappedTables);
+
+    void createIndexes(SchemaSnapshot.Table table);
+
+    void analyze(String tableName);
+
+    void swap(List<SchemaSnapshot.Table> tables);
+}
@@ -0,0 +1,8 @@
+package com.example.testex.application.repository;
+
+public interface TableMaintenanceRepository {
+
+    long estimateRowCount(String tableName);
+
+    void analyze(String tableName);
+}
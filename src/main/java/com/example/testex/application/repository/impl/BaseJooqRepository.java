@@ -1,36 +1,48 @@
 package com.example.testex.application.repository.impl;
 
-import com.example.testex.domain.model.ColumnType;
-import com.example.testex.domain.util.SqlValueParser;
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.jooq.Sequences;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.jooq.DSLContext;
+import org.jooq.DataType;
+import org.jooq.Field;
+import org.jooq.Name;
 import org.jooq.Query;
+import org.jooq.Table;
+import org.jooq.TableField;
+import org.jooq.impl.DSL;
 
 public abstract class BaseJooqRepository {
 
-    private final SqlValueParser sqlValueParser;
+    private static final String UNNEST_ALIAS = "source";
 
     protected final DSLContext dslContext;
 
     protected BaseJooqRepository(DSLContext dslContext) {
         this.dslContext = dslContext;
-        this.sqlValueParser = new SqlValueParser();
     }
 
-    protected Long parseLongSafe(String value) {
-        Object parsed = sqlValueParser.parse(value, ColumnType.BIGINT);
-        if (parsed instanceof Long longValue) {
-            return longValue;
+    protected Long longValue(ColumnData column, int row) {
+        if (column == null || !column.hasLong(row)) {
+            return null;
         }
-        return null;
+        return column.getLong(row);
     }
 
-    protected Boolean parseBooleanSafe(String value) {
-        Object parsed = sqlValueParser.parse(value, ColumnType.BOOLEAN);
-        if (parsed instanceof Boolean boolValue) {
-            return boolValue;
+    protected Boolean booleanValue(ColumnData column, int row) {
+        if (column == null || !column.hasBoolean(row)) {
+            return null;
         }
-        return null;
+        return column.getBoolean(row);
+    }
+
+    protected String textValue(ColumnData column, int row) {
+        return column == null ? null : column.getText(row);
     }
 
     protected String blankToNull(String value) {
@@ -50,4 +62,123 @@ public abstract class BaseJooqRepository {
         }
         dslContext.batch(queries).execute();
     }
+
+    protected void truncate(Table<?> table) {
+        dslContext.truncate(table).execute();
+    }
+
+    protected void unnestUpsert(
+            Table<?> table,
+            List<? extends Field<?>> fields,
+            List<? extends Field<?>> conflictFields,
+            Collection<Object[]> rows,
+            int chunkSize
+    ) {
+        List<Object[]> pending = new ArrayList<>(Math.min(rows.size(), chunkSize));
+        for (Object[] row : rows) {
+            pending.add(row);
+            if (pending.size() >= chunkSize) {
+                executeUnnestUpsert(table, fields, conflictFields, pending);
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            executeUnnestUpsert(table, fields, conflictFields, pending);
+        }
+    }
+
+    protected Table<?> unnestTable(List<? extends Field<?>> fields, List<Object[]> rows) {
+        List<Field<?>> arrays = new ArrayList<>(fields.size());
+        List<String> placeholders = new ArrayList<>(fields.size());
+        List<Name> columnNames = new ArrayList<>(fields.size());
+        for (int column = 0; column < fields.size(); column++) {
+            Field<?> field = fields.get(column);
+            Object[] values = (Object[]) Array.newInstance(field.getType(), rows.size());
+            for (int row = 0; row < rows.size(); row++) {
+                values[row] = rows.get(row)[column];
+            }
+            arrays.add(arrayParam(field, values));
+            placeholders.add("{" + column + "}");
+            columnNames.add(DSL.name(field.getName()));
+        }
+        return DSL.table("unnest(" + String.join(", ", placeholders) + ")", arrays.toArray())
+                .as(DSL.name(UNNEST_ALIAS), columnNames.toArray(Name[]::new));
+    }
+
+    protected <T> Field<T> unnestField(Field<T> field) {
+        return DSL.field(DSL.name(UNNEST_ALIAS, field.getName()), field.getDataType());
+    }
+
+    private void executeUnnestUpsert(
+            Table<?> table,
+            List<? extends Field<?>> fields,
+            List<? extends Field<?>> conflictFields,
+            List<Object[]> rows
+    ) {
+        Table<?> unnest = unnestTable(fields, rows);
+
+        Map<Field<?>, Field<?>> updates = new LinkedHashMap<>();
+        for (Field<?> field : fields) {
+            if (!conflictFields.contains(field)) {
+                updates.put(field, DSL.excluded(field));
+            }
+        }
+        dslContext.insertInto(table)
+                .columns(fields)
+                .select(DSL.selectFrom(unnest))
+                .onConflict(conflictFields)
+                .doUpdate()
+                .set(updates)
+                .execute();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Field<T[]> arrayParam(Field<T> field, Object[] values) {
+        DataType<T[]> arrayType = field.getDataType().getArrayDataType();
+        return DSL.cast(DSL.val((T[]) values, arrayType), arrayType);
+    }
+
+    /**
+     * COPYs the rows into a staging table under a fresh batch id and returns it. The caller reads the batch back
+     * and deletes it in its own transaction, so other sessions never see the rows and no TRUNCATE is needed.
+     */
+    protected long copyIntoStaging(
+            Table<?> table,
+            TableField<?, Long> batchIdField,
+            List<? extends Field<?>> fields,
+            Collection<Object[]> rows
+    ) {
+        long batchId = dslContext.nextval(Sequences.STAGING_BATCH_SEQ);
+        List<Field<?>> stagedFields = new ArrayList<>(fields.size() + 1);
+        stagedFields.add(batchIdField);
+        stagedFields.addAll(fields);
+        copyInto(table, stagedFields, () -> rows.stream().map(row -> {
+            Object[] staged = new Object[row.length + 1];
+            staged[0] = batchId;
+            System.arraycopy(row, 0, staged, 1, row.length);
+            return staged;
+        }).iterator());
+        return batchId;
+    }
+
+    protected void deleteStaged(Table<?> table, TableField<?, Long> batchIdField, long batchId) {
+        dslContext.deleteFrom(table).where(batchIdField.eq(batchId)).execute();
+    }
+
+    protected long copyInto(Table<?> table, List<? extends Field<?>> fields, Iterable<Object[]> rows) {
+        List<String> columnNames = new ArrayList<>();
+        for (Field<?> field : fields) {
+            columnNames.add(dslContext.render(DSL.name(field.getName())));
+        }
+        String copySql = "COPY " + dslContext.render(table) + " (" + String.join(", ", columnNames)
+                + ") FROM STDIN WITH (FORMAT csv)";
+        return dslContext.connectionResult(connection -> {
+            try (PgCopyWriter writer = PgCopyWriter.open(connection, copySql)) {
+                for (Object[] row : rows) {
+                    writer.writeRow(row);
+                }
+                return writer.finish();
+            }
+        });
+    }
 }
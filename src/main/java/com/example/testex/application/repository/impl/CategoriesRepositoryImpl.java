@@ -1,10 +1,13 @@
 package com.example.testex.application.repository.impl;
 
+import com.example.testex.application.config.RepositoryWriteProperties;
 import com.example.testex.application.repository.CategoriesRepository;
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.domain.model.TableData;
 import com.example.testex.jooq.Tables;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import org.jooq.DSLContext;
 import org.jooq.Query;
 import org.springframework.stereotype.Repository;
@@ -12,20 +15,42 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class CategoriesRepositoryImpl extends BaseJooqRepository implements CategoriesRepository {
 
-    public CategoriesRepositoryImpl(DSLContext dslContext) {
+    private final RepositoryWriteProperties.WriteMode writeMode;
+    private final int unnestChunkSize;
+
+    public CategoriesRepositoryImpl(DSLContext dslContext, RepositoryWriteProperties repositoryWriteProperties) {
         super(dslContext);
+        this.writeMode = repositoryWriteProperties.writeModeFor("categories");
+        this.unnestChunkSize = repositoryWriteProperties.getUnnestChunkSize();
     }
 
     @Override
-    public void upsert(List<Map<String, String>> rows) {
+    public void upsert(TableData tableData) {
+        ColumnData idColumn = tableData.column("id");
+        ColumnData parentIdColumn = tableData.column("parent_id");
+        ColumnData nameColumn = tableData.column("name");
+        if (writeMode == RepositoryWriteProperties.WriteMode.UNNEST) {
+            LinkedHashMap<Long, Object[]> rowsById = new LinkedHashMap<>();
+            for (int row = 0; row < tableData.rowCount(); row++) {
+                Long id = longValue(idColumn, row);
+                if (id != null) {
+                    rowsById.put(id, new Object[]{id, longValue(parentIdColumn, row), textValue(nameColumn, row)});
+                }
+            }
+            unnestUpsert(Tables.CATEGORIES,
+                    List.of(Tables.CATEGORIES.ID, Tables.CATEGORIES.PARENT_ID, Tables.CATEGORIES.NAME),
+                    List.of(Tables.CATEGORIES.ID), rowsById.values(), unnestChunkSize);
+            return;
+        }
+
         List<Query> queries = new ArrayList<>();
-        for (Map<String, String> row : rows) {
-            Long id = parseLongSafe(row.get("id"));
+        for (int row = 0; row < tableData.rowCount(); row++) {
+            Long id = longValue(idColumn, row);
             if (id == null) {
                 continue;
             }
-            Long parentId = parseLongSafe(row.get("parent_id"));
-            String name = blankToNull(row.get("name"));
+            Long parentId = longValue(parentIdColumn, row);
+            String name = textValue(nameColumn, row);
 
             queries.add(dslContext.insertInto(Tables.CATEGORIES)
                     .set(Tables.CATEGORIES.ID, id)
@@ -1,10 +1,13 @@
 package com.example.testex.application.repository.impl;
 
+import com.example.testex.application.config.RepositoryWriteProperties;
 import com.example.testex.application.repository.CurrencyRepository;
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.domain.model.TableData;
 import com.example.testex.jooq.Tables;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import org.jooq.DSLContext;
 import org.jooq.Query;
 import org.springframework.stereotype.Repository;
@@ -12,19 +15,39 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class CurrencyRepositoryImpl extends BaseJooqRepository implements CurrencyRepository {
 
-    public CurrencyRepositoryImpl(DSLContext dslContext) {
+    private final RepositoryWriteProperties.WriteMode writeMode;
+    private final int unnestChunkSize;
+
+    public CurrencyRepositoryImpl(DSLContext dslContext, RepositoryWriteProperties repositoryWriteProperties) {
         super(dslContext);
+        this.writeMode = repositoryWriteProperties.writeModeFor("currency");
+        this.unnestChunkSize = repositoryWriteProperties.getUnnestChunkSize();
     }
 
     @Override
-    public void upsert(List<Map<String, String>> rows) {
+    public void upsert(TableData tableData) {
+        ColumnData idColumn = tableData.column("id");
+        ColumnData rateColumn = tableData.column("rate");
+        if (writeMode == RepositoryWriteProperties.WriteMode.UNNEST) {
+            LinkedHashMap<String, Object[]> rowsById = new LinkedHashMap<>();
+            for (int row = 0; row < tableData.rowCount(); row++) {
+                String id = textValue(idColumn, row);
+                if (id != null) {
+                    rowsById.put(id, new Object[]{id, longValue(rateColumn, row)});
+                }
+            }
+            unnestUpsert(Tables.CURRENCY, List.of(Tables.CURRENCY.ID, Tables.CURRENCY.RATE),
+                    List.of(Tables.CURRENCY.ID), rowsById.values(), unnestChunkSize);
+            return;
+        }
+
         List<Query> queries = new ArrayList<>();
-        for (Map<String, String> row : rows) {
-            String id = blankToNull(row.get("id"));
+        for (int row = 0; row < tableData.rowCount(); row++) {
+            String id = textValue(idColumn, row);
             if (id == null) {
                 continue;
             }
-            Long rate = parseLongSafe(row.get("rate"));
+            Long rate = longValue(rateColumn, row);
             queries.add(dslContext.insertInto(Tables.CURRENCY)
                     .set(Tables.CURRENCY.ID, id)
                     .set(Tables.CURRENCY.RATE, rate)
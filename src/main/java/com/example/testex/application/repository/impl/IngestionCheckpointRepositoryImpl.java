@@ -0,0 +1,95 @@
+package com.example.testex.application.repository.impl;
+
+import com.example.testex.application.repository.IngestionCheckpointRepository;
+import com.example.testex.domain.model.IngestionRun;
+import com.example.testex.domain.model.SyncReport;
+import com.example.testex.jooq.Tables;
+import com.example.testex.jooq.tables.records.IngestionCheckpointRecord;
+import com.example.testex.jooq.tables.records.IngestionRunRecord;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class IngestionCheckpointRepositoryImpl extends BaseJooqRepository implements IngestionCheckpointRepository {
+
+    public IngestionCheckpointRepositoryImpl(DSLContext dslContext) {
+        super(dslContext);
+    }
+
+    @Override
+    public IngestionRun findResumableRun(String feedVersion, int chunkSize) {
+        IngestionRunRecord record = dslContext.selectFrom(Tables.INGESTION_RUN)
+                .where(Tables.INGESTION_RUN.FEED_VERSION.eq(feedVersion))
+                .and(Tables.INGESTION_RUN.CHUNK_SIZE.eq(chunkSize))
+                .orderBy(Tables.INGESTION_RUN.ID.desc())
+                .limit(1)
+                .fetchOne();
+        if (record == null || IngestionRun.Status.COMPLETED.name().equals(record.getStatus())) {
+            return null;
+        }
+        return toIngestionRun(record);
+    }
+
+    @Override
+    public IngestionRun startRun(String feedVersion, int chunkSize) {
+        IngestionRunRecord record = dslContext.insertInto(Tables.INGESTION_RUN)
+                .set(Tables.INGESTION_RUN.FEED_VERSION, feedVersion)
+                .set(Tables.INGESTION_RUN.CHUNK_SIZE, chunkSize)
+                .set(Tables.INGESTION_RUN.STATUS, IngestionRun.Status.RUNNING.name())
+                .returning()
+                .fetchOne();
+        return toIngestionRun(record);
+    }
+
+    @Override
+    public void updateStatus(long runId, IngestionRun.Status status) {
+        dslContext.update(Tables.INGESTION_RUN)
+                .set(Tables.INGESTION_RUN.STATUS, status.name())
+                .set(Tables.INGESTION_RUN.FINISHED_AT, status == IngestionRun.Status.RUNNING
+                        ? DSL.inline(null, Tables.INGESTION_RUN.FINISHED_AT)
+                        : DSL.currentOffsetDateTime())
+                .where(Tables.INGESTION_RUN.ID.eq(runId))
+                .execute();
+    }
+
+    @Override
+    public Map<Integer, SyncReport> findCommittedChunks(long runId) {
+        Map<Integer, SyncReport> chunks = new LinkedHashMap<>();
+        for (IngestionCheckpointRecord record : dslContext.selectFrom(Tables.INGESTION_CHECKPOINT)
+                .where(Tables.INGESTION_CHECKPOINT.RUN_ID.eq(runId))
+                .orderBy(Tables.INGESTION_CHECKPOINT.CHUNK_INDEX)
+                .fetch()) {
+            chunks.put(record.getChunkIndex(), new SyncReport(
+                    record.getInserted(),
+                    record.getChanged(),
+                    record.getUnchanged(),
+                    0
+            ));
+        }
+        return chunks;
+    }
+
+    @Override
+    public void commitChunk(long runId, int chunkIndex, int offerCount, SyncReport report) {
+        dslContext.insertInto(Tables.INGESTION_CHECKPOINT)
+                .set(Tables.INGESTION_CHECKPOINT.RUN_ID, runId)
+                .set(Tables.INGESTION_CHECKPOINT.CHUNK_INDEX, chunkIndex)
+                .set(Tables.INGESTION_CHECKPOINT.OFFER_COUNT, offerCount)
+                .set(Tables.INGESTION_CHECKPOINT.INSERTED, report.inserted())
+                .set(Tables.INGESTION_CHECKPOINT.CHANGED, report.changed())
+                .set(Tables.INGESTION_CHECKPOINT.UNCHANGED, report.unchanged())
+                .execute();
+    }
+
+    private IngestionRun toIngestionRun(IngestionRunRecord record) {
+        return new IngestionRun(
+                record.getId(),
+                record.getFeedVersion(),
+                record.getChunkSize(),
+                IngestionRun.Status.valueOf(record.getStatus())
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.testex.application.repository.impl;
+
+import com.example.testex.application.config.RepositoryWriteProperties;
+import com.example.testex.application.repository.OfferFingerprintRepository;
+import com.example.testex.jooq.Tables;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jooq.DSLContext;
+import org.jooq.Record2;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class OfferFingerprintRepositoryImpl extends BaseJooqRepository implements OfferFingerprintRepository {
+
+    private final int unnestChunkSize;
+
+    public OfferFingerprintRepositoryImpl(DSLContext dslContext, RepositoryWriteProperties repositoryWriteProperties) {
+        super(dslContext);
+        this.unnestChunkSize = repositoryWriteProperties.getUnnestChunkSize();
+    }
+
+    @Override
+    public Map<Long, Long> findByOfferIds(Set<Long> offerIds) {
+        Map<Long, Long> fingerprints = new HashMap<>();
+        if (offerIds.isEmpty()) {
+            return fingerprints;
+        }
+        for (Record2<Long, Long> record : dslContext
+                .select(Tables.OFFER_FINGERPRINT.OFFER_ID, Tables.OFFER_FINGERPRINT.FINGERPRINT)
+                .from(Tables.OFFER_FINGERPRINT)
+                .where(Tables.OFFER_FINGERPRINT.OFFER_ID.eq(DSL.any(offerIds.toArray(Long[]::new))))
+                .fetch()) {
+            fingerprints.put(record.value1(), record.value2());
+        }
+        return fingerprints;
+    }
+
+    @Override
+    public void upsert(Map<Long, Long> fingerprintsByOfferId) {
+        List<Object[]> rows = new ArrayList<>(fingerprintsByOfferId.size());
+        for (Map.Entry<Long, Long> entry : fingerprintsByOfferId.entrySet()) {
+            rows.add(new Object[]{entry.getKey(), entry.getValue()});
+        }
+        unnestUpsert(Tables.OFFER_FINGERPRINT,
+                List.of(Tables.OFFER_FINGERPRINT.OFFER_ID, Tables.OFFER_FINGERPRINT.FINGERPRINT),
+                List.of(Tables.OFFER_FINGERPRINT.OFFER_ID), rows, unnestChunkSize);
+    }
+}
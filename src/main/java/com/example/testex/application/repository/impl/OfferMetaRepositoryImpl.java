@@ -1,20 +1,29 @@
 package com.example.testex.application.repository.impl;
 
+import com.example.testex.application.config.RepositoryWriteProperties;
 import com.example.testex.application.repository.OfferMetaRepository;
 import com.example.testex.domain.model.OfferMeta;
 import com.example.testex.jooq.Tables;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.Query;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class OfferMetaRepositoryImpl extends BaseJooqRepository implements OfferMetaRepository {
 
-    public OfferMetaRepositoryImpl(DSLContext dslContext) {
+    private final RepositoryWriteProperties.WriteMode writeMode;
+    private final int chunkSize;
+
+    public OfferMetaRepositoryImpl(DSLContext dslContext, RepositoryWriteProperties repositoryWriteProperties) {
         super(dslContext);
+        this.writeMode = repositoryWriteProperties.writeModeFor("offer-meta");
+        this.chunkSize = repositoryWriteProperties.getUnnestChunkSize();
     }
 
     @Override
@@ -22,14 +31,22 @@ public class OfferMetaRepositoryImpl extends BaseJooqRepository implements Offer
         if (offerIds.isEmpty()) {
             return;
         }
+        if (writeMode == RepositoryWriteProperties.WriteMode.COPY) {
+            copyReplaceForOffers(offerIds, offerMetas);
+            return;
+        }
+        if (writeMode == RepositoryWriteProperties.WriteMode.MERGE) {
+            mergeForOffers(offerIds, offerMetas);
+            return;
+        }
 
         dslContext.deleteFrom(Tables.OFFER_META)
-                .where(Tables.OFFER_META.OFFER_ID.in(offerIds))
+                .where(Tables.OFFER_META.OFFER_ID.eq(DSL.any(offerIds.toArray(Long[]::new))))
                 .execute();
 
         List<Query> queries = new ArrayList<>();
         for (OfferMeta offerMeta : offerMetas) {
-            Long offerId = parseLongSafe(offerMeta.offerId());
+            Long offerId = offerMeta.offerId();
             if (offerId == null || !offerIds.contains(offerId)) {
                 continue;
             }
@@ -43,4 +60,125 @@ public class OfferMetaRepositoryImpl extends BaseJooqRepository implements Offer
 
         executeBatch(queries);
     }
+
+    @Override
+    public void bulkReplaceForOffers(Set<Long> offerIds, List<OfferMeta> offerMetas) {
+        if (!offerIds.isEmpty()) {
+            copyReplaceForOffers(offerIds, offerMetas);
+        }
+    }
+
+    private void mergeForOffers(Set<Long> offerIds, List<OfferMeta> offerMetas) {
+        LinkedHashMap<Long, Object[]> rowsByOfferId = new LinkedHashMap<>();
+        for (OfferMeta offerMeta : offerMetas) {
+            Long offerId = offerMeta.offerId();
+            if (offerId == null || !offerIds.contains(offerId)) {
+                continue;
+            }
+            rowsByOfferId.put(offerId, new Object[]{
+                    offerId,
+                    blankToNull(offerMeta.url()),
+                    blankToNull(offerMeta.picture()),
+                    blankToNull(offerMeta.name()),
+                    blankToNull(offerMeta.description())
+            });
+        }
+
+        List<Long> offersWithoutMeta = new ArrayList<>();
+        for (Long offerId : offerIds) {
+            if (!rowsByOfferId.containsKey(offerId)) {
+                offersWithoutMeta.add(offerId);
+            }
+        }
+        if (!offersWithoutMeta.isEmpty()) {
+            dslContext.deleteFrom(Tables.OFFER_META)
+                    .where(Tables.OFFER_META.OFFER_ID.eq(DSL.any(offersWithoutMeta.toArray(Long[]::new))))
+                    .execute();
+        }
+
+        List<Object[]> rows = new ArrayList<>(rowsByOfferId.values());
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            mergeChunk(rows.subList(from, Math.min(rows.size(), from + chunkSize)));
+        }
+    }
+
+    private void mergeChunk(List<Object[]> rows) {
+        List<Field<?>> fields = List.of(
+                Tables.OFFER_META.OFFER_ID,
+                Tables.OFFER_META.URL,
+                Tables.OFFER_META.PICTURE,
+                Tables.OFFER_META.NAME,
+                Tables.OFFER_META.DESCRIPTION
+        );
+        dslContext.insertInto(Tables.OFFER_META)
+                .columns(fields)
+                .select(DSL.selectFrom(unnestTable(fields, rows)))
+                .onConflict(Tables.OFFER_META.OFFER_ID)
+                .doUpdate()
+                .set(Tables.OFFER_META.URL, DSL.excluded(Tables.OFFER_META.URL))
+                .set(Tables.OFFER_META.PICTURE, DSL.excluded(Tables.OFFER_META.PICTURE))
+                .set(Tables.OFFER_META.NAME, DSL.excluded(Tables.OFFER_META.NAME))
+                .set(Tables.OFFER_META.DESCRIPTION, DSL.excluded(Tables.OFFER_META.DESCRIPTION))
+                .where(DSL.row(
+                        Tables.OFFER_META.URL,
+                        Tables.OFFER_META.PICTURE,
+                        Tables.OFFER_META.NAME,
+                        Tables.OFFER_META.DESCRIPTION
+                ).isDistinctFrom(DSL.row(
+                        DSL.excluded(Tables.OFFER_META.URL),
+                        DSL.excluded(Tables.OFFER_META.PICTURE),
+                        DSL.excluded(Tables.OFFER_META.NAME),
+                        DSL.excluded(Tables.OFFER_META.DESCRIPTION)
+                )))
+                .execute();
+    }
+
+    private void copyReplaceForOffers(Set<Long> offerIds, List<OfferMeta> offerMetas) {
+        List<Object[]> rows = new ArrayList<>();
+        for (OfferMeta offerMeta : offerMetas) {
+            Long offerId = offerMeta.offerId();
+            if (offerId == null || !offerIds.contains(offerId)) {
+                continue;
+            }
+            rows.add(new Object[]{
+                    offerId,
+                    blankToNull(offerMeta.url()),
+                    blankToNull(offerMeta.picture()),
+                    blankToNull(offerMeta.name()),
+                    blankToNull(offerMeta.description())
+            });
+        }
+
+        dslContext.deleteFrom(Tables.OFFER_META)
+                .where(Tables.OFFER_META.OFFER_ID.eq(DSL.any(offerIds.toArray(Long[]::new))))
+                .execute();
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        long batchId = copyIntoStaging(Tables.OFFER_META_STAGING, Tables.OFFER_META_STAGING.BATCH_ID, List.of(
+                Tables.OFFER_META_STAGING.OFFER_ID,
+                Tables.OFFER_META_STAGING.URL,
+                Tables.OFFER_META_STAGING.PICTURE,
+                Tables.OFFER_META_STAGING.NAME,
+                Tables.OFFER_META_STAGING.DESCRIPTION
+        ), rows);
+
+        dslContext.insertInto(Tables.OFFER_META,
+                        Tables.OFFER_META.OFFER_ID,
+                        Tables.OFFER_META.URL,
+                        Tables.OFFER_META.PICTURE,
+                        Tables.OFFER_META.NAME,
+                        Tables.OFFER_META.DESCRIPTION)
+                .select(dslContext.select(
+                                Tables.OFFER_META_STAGING.OFFER_ID,
+                                Tables.OFFER_META_STAGING.URL,
+                                Tables.OFFER_META_STAGING.PICTURE,
+                                Tables.OFFER_META_STAGING.NAME,
+                                Tables.OFFER_META_STAGING.DESCRIPTION)
+                        .from(Tables.OFFER_META_STAGING)
+                        .where(Tables.OFFER_META_STAGING.BATCH_ID.eq(batchId)))
+                .execute();
+        deleteStaged(Tables.OFFER_META_STAGING, Tables.OFFER_META_STAGING.BATCH_ID, batchId);
+    }
 }
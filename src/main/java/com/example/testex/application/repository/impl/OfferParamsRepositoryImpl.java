@@ -1,20 +1,41 @@
 package com.example.testex.application.repository.impl;
 
+import com.example.testex.application.config.RepositoryWriteProperties;
 import com.example.testex.application.repository.OfferParamsRepository;
+import com.example.testex.application.repository.ParamNameRepository;
 import com.example.testex.domain.model.OfferParam;
 import com.example.testex.jooq.Tables;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.Query;
+import org.jooq.Record4;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class OfferParamsRepositoryImpl extends BaseJooqRepository implements OfferParamsRepository {
 
-    public OfferParamsRepositoryImpl(DSLContext dslContext) {
+    private final ParamNameRepository paramNameRepository;
+    private final RepositoryWriteProperties.WriteMode writeMode;
+    private final int chunkSize;
+
+    public OfferParamsRepositoryImpl(
+            DSLContext dslContext,
+            ParamNameRepository paramNameRepository,
+            RepositoryWriteProperties repositoryWriteProperties
+    ) {
         super(dslContext);
+        this.paramNameRepository = paramNameRepository;
+        this.writeMode = repositoryWriteProperties.writeModeFor("offer-params");
+        this.chunkSize = repositoryWriteProperties.getUnnestChunkSize();
     }
 
     @Override
@@ -22,14 +43,23 @@ public class OfferParamsRepositoryImpl extends BaseJooqRepository implements Off
         if (offerIds.isEmpty()) {
             return;
         }
+        if (writeMode == RepositoryWriteProperties.WriteMode.COPY) {
+            copyReplaceForOffers(offerIds, offerParams);
+            return;
+        }
+        if (writeMode == RepositoryWriteProperties.WriteMode.MERGE) {
+            mergeForOffers(offerIds, offerParams);
+            return;
+        }
 
+        Map<String, Integer> paramNameIds = resolveParamNameIds(offerIds, offerParams);
         dslContext.deleteFrom(Tables.OFFER_PARAMS)
-                .where(Tables.OFFER_PARAMS.OFFER_ID.in(offerIds))
+                .where(Tables.OFFER_PARAMS.OFFER_ID.eq(DSL.any(offerIds.toArray(Long[]::new))))
                 .execute();
 
         List<Query> queries = new ArrayList<>();
         for (OfferParam offerParam : offerParams) {
-            Long offerId = parseLongSafe(offerParam.offerId());
+            Long offerId = offerParam.offerId();
             if (offerId == null || !offerIds.contains(offerId)) {
                 continue;
             }
@@ -39,10 +69,188 @@ public class OfferParamsRepositoryImpl extends BaseJooqRepository implements Off
             }
             queries.add(dslContext.insertInto(Tables.OFFER_PARAMS)
                     .set(Tables.OFFER_PARAMS.OFFER_ID, offerId)
-                    .set(Tables.OFFER_PARAMS.PARAM_NAME, paramName)
+                    .set(Tables.OFFER_PARAMS.PARAM_NAME_ID, paramNameIds.get(paramName))
                     .set(Tables.OFFER_PARAMS.PARAM_VALUE, blankToNull(offerParam.paramValue())));
         }
 
         executeBatch(queries);
     }
+
+    @Override
+    public void bulkReplaceForOffers(Set<Long> offerIds, List<OfferParam> offerParams) {
+        if (!offerIds.isEmpty()) {
+            copyReplaceForOffers(offerIds, offerParams);
+        }
+    }
+
+    private void mergeForOffers(Set<Long> offerIds, List<OfferParam> offerParams) {
+        Map<String, Integer> paramNameIds = resolveParamNameIds(offerIds, offerParams);
+        Map<Long, List<ParamValue>> incomingByOffer = new HashMap<>();
+        for (OfferParam offerParam : offerParams) {
+            Long offerId = offerParam.offerId();
+            if (offerId == null || !offerIds.contains(offerId)) {
+                continue;
+            }
+            String paramName = blankToNull(offerParam.paramName());
+            if (paramName == null) {
+                continue;
+            }
+            incomingByOffer.computeIfAbsent(offerId, key -> new ArrayList<>())
+                    .add(new ParamValue(paramNameIds.get(paramName), blankToNull(offerParam.paramValue())));
+        }
+
+        List<Long> ids = new ArrayList<>(offerIds);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            mergeChunk(ids.subList(from, Math.min(ids.size(), from + chunkSize)), incomingByOffer);
+        }
+    }
+
+    private void mergeChunk(List<Long> offerIds, Map<Long, List<ParamValue>> incomingByOffer) {
+        Map<Long, Map<ParamValue, ArrayDeque<Long>>> storedByOffer = new HashMap<>();
+        for (Record4<Long, Long, Integer, String> record : dslContext
+                .select(Tables.OFFER_PARAMS.ID,
+                        Tables.OFFER_PARAMS.OFFER_ID,
+                        Tables.OFFER_PARAMS.PARAM_NAME_ID,
+                        Tables.OFFER_PARAMS.PARAM_VALUE)
+                .from(Tables.OFFER_PARAMS)
+                .where(Tables.OFFER_PARAMS.OFFER_ID.eq(DSL.any(offerIds.toArray(Long[]::new))))
+                .fetch()) {
+            storedByOffer.computeIfAbsent(record.value2(), key -> new LinkedHashMap<>())
+                    .computeIfAbsent(new ParamValue(record.value3(), record.value4()), key -> new ArrayDeque<>())
+                    .add(record.value1());
+        }
+
+        ParamDiff diff = diff(offerIds, storedByOffer, incomingByOffer);
+        if (!diff.deletes().isEmpty()) {
+            dslContext.deleteFrom(Tables.OFFER_PARAMS)
+                    .where(Tables.OFFER_PARAMS.ID.eq(DSL.any(diff.deletes().toArray(Long[]::new))))
+                    .execute();
+        }
+        if (!diff.updates().isEmpty()) {
+            List<Field<?>> fields = List.of(Tables.OFFER_PARAMS.ID, Tables.OFFER_PARAMS.PARAM_VALUE);
+            dslContext.update(Tables.OFFER_PARAMS)
+                    .set(Tables.OFFER_PARAMS.PARAM_VALUE, unnestField(Tables.OFFER_PARAMS.PARAM_VALUE))
+                    .from(unnestTable(fields, diff.updates()))
+                    .where(Tables.OFFER_PARAMS.ID.eq(unnestField(Tables.OFFER_PARAMS.ID)))
+                    .execute();
+        }
+        if (!diff.inserts().isEmpty()) {
+            List<Field<?>> fields = List.of(
+                    Tables.OFFER_PARAMS.OFFER_ID,
+                    Tables.OFFER_PARAMS.PARAM_NAME_ID,
+                    Tables.OFFER_PARAMS.PARAM_VALUE
+            );
+            dslContext.insertInto(Tables.OFFER_PARAMS)
+                    .columns(fields)
+                    .select(DSL.selectFrom(unnestTable(fields, diff.inserts())))
+                    .execute();
+        }
+    }
+
+    /**
+     * Matches incoming params against the stored rows of each offer: equal name and value pairs are kept, leftover
+     * rows are reused for new values of the same name, and whatever remains is deleted or inserted. Duplicate
+     * names and values are matched one row at a time. The stored id queues are consumed.
+     */
+    static ParamDiff diff(
+            List<Long> offerIds,
+            Map<Long, Map<ParamValue, ArrayDeque<Long>>> storedByOffer,
+            Map<Long, List<ParamValue>> incomingByOffer
+    ) {
+        List<Long> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Long offerId : offerIds) {
+            Map<ParamValue, ArrayDeque<Long>> stored = storedByOffer.getOrDefault(offerId, Map.of());
+            List<ParamValue> pending = new ArrayList<>();
+            for (ParamValue incoming : incomingByOffer.getOrDefault(offerId, List.of())) {
+                ArrayDeque<Long> matches = stored.get(incoming);
+                if (matches != null && !matches.isEmpty()) {
+                    matches.poll();
+                } else {
+                    pending.add(incoming);
+                }
+            }
+
+            Map<Integer, ArrayDeque<Long>> leftoverByName = new HashMap<>();
+            for (Map.Entry<ParamValue, ArrayDeque<Long>> entry : stored.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    leftoverByName.computeIfAbsent(entry.getKey().nameId(), key -> new ArrayDeque<>())
+                            .addAll(entry.getValue());
+                }
+            }
+            for (ParamValue incoming : pending) {
+                ArrayDeque<Long> reusable = leftoverByName.get(incoming.nameId());
+                Long reusableId = reusable == null ? null : reusable.poll();
+                if (reusableId != null) {
+                    updates.add(new Object[]{reusableId, incoming.value()});
+                } else {
+                    inserts.add(new Object[]{offerId, incoming.nameId(), incoming.value()});
+                }
+            }
+            for (ArrayDeque<Long> leftover : leftoverByName.values()) {
+                deletes.addAll(leftover);
+            }
+        }
+        return new ParamDiff(deletes, updates, inserts);
+    }
+
+    private void copyReplaceForOffers(Set<Long> offerIds, List<OfferParam> offerParams) {
+        Map<String, Integer> paramNameIds = resolveParamNameIds(offerIds, offerParams);
+        List<Object[]> rows = new ArrayList<>();
+        for (OfferParam offerParam : offerParams) {
+            Long offerId = offerParam.offerId();
+            if (offerId == null || !offerIds.contains(offerId)) {
+                continue;
+            }
+            String paramName = blankToNull(offerParam.paramName());
+            if (paramName == null) {
+                continue;
+            }
+            rows.add(new Object[]{offerId, paramNameIds.get(paramName), blankToNull(offerParam.paramValue())});
+        }
+
+        dslContext.deleteFrom(Tables.OFFER_PARAMS)
+                .where(Tables.OFFER_PARAMS.OFFER_ID.eq(DSL.any(offerIds.toArray(Long[]::new))))
+                .execute();
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        long batchId = copyIntoStaging(Tables.OFFER_PARAMS_STAGING, Tables.OFFER_PARAMS_STAGING.BATCH_ID, List.of(
+                Tables.OFFER_PARAMS_STAGING.OFFER_ID,
+                Tables.OFFER_PARAMS_STAGING.PARAM_NAME_ID,
+                Tables.OFFER_PARAMS_STAGING.PARAM_VALUE
+        ), rows);
+
+        dslContext.insertInto(Tables.OFFER_PARAMS,
+                        Tables.OFFER_PARAMS.OFFER_ID,
+                        Tables.OFFER_PARAMS.PARAM_NAME_ID,
+                        Tables.OFFER_PARAMS.PARAM_VALUE)
+                .select(dslContext.select(
+                                Tables.OFFER_PARAMS_STAGING.OFFER_ID,
+                                Tables.OFFER_PARAMS_STAGING.PARAM_NAME_ID,
+                                Tables.OFFER_PARAMS_STAGING.PARAM_VALUE)
+                        .from(Tables.OFFER_PARAMS_STAGING)
+                        .where(Tables.OFFER_PARAMS_STAGING.BATCH_ID.eq(batchId)))
+                .execute();
+        deleteStaged(Tables.OFFER_PARAMS_STAGING, Tables.OFFER_PARAMS_STAGING.BATCH_ID, batchId);
+    }
+
+    private Map<String, Integer> resolveParamNameIds(Set<Long> offerIds, List<OfferParam> offerParams) {
+        Set<String> paramNames = new HashSet<>();
+        for (OfferParam offerParam : offerParams) {
+            String paramName = blankToNull(offerParam.paramName());
+            if (paramName != null && offerParam.offerId() != null && offerIds.contains(offerParam.offerId())) {
+                paramNames.add(paramName);
+            }
+        }
+        return paramNameRepository.resolveIds(paramNames);
+    }
+
+    record ParamValue(int nameId, String value) {
+    }
+
+    record ParamDiff(List<Long> deletes, List<Object[]> updates, List<Object[]> inserts) {
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.testex.application.repository.impl;
+
+import com.example.testex.application.repository.OfferRemovalRepository;
+import com.example.testex.jooq.Tables;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class OfferRemovalRepositoryImpl extends BaseJooqRepository implements OfferRemovalRepository {
+
+    public OfferRemovalRepositoryImpl(DSLContext dslContext) {
+        super(dslContext);
+    }
+
+    @Override
+    public void clearFeedOfferIds() {
+        truncate(Tables.OFFER_IDS_STAGING);
+    }
+
+    @Override
+    public void stageFeedOfferIds(Collection<Long> offerIds) {
+        if (offerIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(offerIds.size());
+        for (Long offerId : offerIds) {
+            rows.add(new Object[]{offerId});
+        }
+        copyInto(Tables.OFFER_IDS_STAGING, List.of(Tables.OFFER_IDS_STAGING.OFFER_ID), rows);
+    }
+
+    @Override
+    public long countFeedOfferIds() {
+        return dslContext.fetchCount(dslContext.selectDistinct(Tables.OFFER_IDS_STAGING.OFFER_ID)
+                .from(Tables.OFFER_IDS_STAGING));
+    }
+
+    @Override
+    public long countOffers() {
+        return dslContext.fetchCount(Tables.OFFERS);
+    }
+
+    @Override
+    public long countMissingOffers() {
+        return dslContext.fetchCount(Tables.OFFERS, missingFromFeed());
+    }
+
+    @Override
+    public long countAvailableMissingOffers() {
+        return dslContext.fetchCount(Tables.OFFERS, missingFromFeed().and(stillAvailable()));
+    }
+
+    @Override
+    public int deleteMissingOffers(int limit) {
+        return dslContext.deleteFrom(Tables.OFFERS)
+                .where(Tables.OFFERS.ID.in(dslContext.select(Tables.OFFERS.ID)
+                        .from(Tables.OFFERS)
+                        .where(missingFromFeed())
+                        .limit(limit)))
+                .execute();
+    }
+
+    @Override
+    public int markMissingOffersUnavailable(int limit) {
+        Long[] offerIds = dslContext.select(Tables.OFFERS.ID)
+                .from(Tables.OFFERS)
+                .where(missingFromFeed().and(stillAvailable()))
+                .limit(limit)
+                .fetchArray(Tables.OFFERS.ID);
+        if (offerIds.length == 0) {
+            return 0;
+        }
+        dslContext.update(Tables.OFFERS)
+                .set(Tables.OFFERS.AVAILABLE, false)
+                .where(Tables.OFFERS.ID.eq(DSL.any(offerIds)))
+                .execute();
+        dslContext.deleteFrom(Tables.OFFER_FINGERPRINT)
+                .where(Tables.OFFER_FINGERPRINT.OFFER_ID.eq(DSL.any(offerIds)))
+                .execute();
+        return offerIds.length;
+    }
+
+    private Condition missingFromFeed() {
+        return DSL.notExists(DSL.selectOne()
+                .from(Tables.OFFER_IDS_STAGING)
+                .where(Tables.OFFER_IDS_STAGING.OFFER_ID.eq(Tables.OFFERS.ID)));
+    }
+
+    private Condition stillAvailable() {
+        return Tables.OFFERS.AVAILABLE.isDistinctFrom(false)
+                .or(DSL.exists(DSL.selectOne()
+                        .from(Tables.OFFER_FINGERPRINT)
+                        .where(Tables.OFFER_FINGERPRINT.OFFER_ID.eq(Tables.OFFERS.ID))));
+    }
+}
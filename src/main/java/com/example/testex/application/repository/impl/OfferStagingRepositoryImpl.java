@@ -0,0 +1,454 @@
+package com.example.testex.application.repository.impl;
+
+import com.example.testex.application.config.RepositoryWriteProperties;
+import com.example.testex.application.repository.OfferStagingRepository;
+import com.example.testex.application.repository.ParamNameRepository;
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.domain.model.OfferMeta;
+import com.example.testex.domain.model.OfferParam;
+import com.example.testex.domain.model.OfferVendor;
+import com.example.testex.domain.model.TableData;
+import com.example.testex.jooq.Sequences;
+import com.example.testex.jooq.Tables;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record1;
+import org.jooq.Select;
+import org.jooq.Table;
+import org.jooq.TableField;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class OfferStagingRepositoryImpl extends BaseJooqRepository implements OfferStagingRepository {
+
+    private static final String OCCURRENCE = "occurrence";
+    private static final List<TableField<?, Long>> STAGED_BATCH_IDS = List.of(
+            Tables.CURRENCY_STAGING.BATCH_ID,
+            Tables.CATEGORIES_STAGING.BATCH_ID,
+            Tables.VENDOR_STAGING.BATCH_ID,
+            Tables.OFFERS_STAGING.BATCH_ID,
+            Tables.OFFER_META_STAGING.BATCH_ID,
+            Tables.OFFER_PARAMS_STAGING.BATCH_ID
+    );
+
+    private final ParamNameRepository paramNameRepository;
+    private final RepositoryWriteProperties.WriteMode offerMetaWriteMode;
+    private final RepositoryWriteProperties.WriteMode offerParamsWriteMode;
+
+    public OfferStagingRepositoryImpl(
+            DSLContext dslContext,
+            ParamNameRepository paramNameRepository,
+            RepositoryWriteProperties repositoryWriteProperties
+    ) {
+        super(dslContext);
+        this.paramNameRepository = paramNameRepository;
+        this.offerMetaWriteMode = repositoryWriteProperties.writeModeFor("offer-meta");
+        this.offerParamsWriteMode = repositoryWriteProperties.writeModeFor("offer-params");
+    }
+
+    @Override
+    public void lock() {
+        dslContext.execute("SELECT pg_advisory_xact_lock(hashtext(?))", dslContext.render(Tables.OFFERS_STAGING));
+    }
+
+    @Override
+    public long nextBatchId() {
+        return dslContext.nextval(Sequences.STAGING_BATCH_SEQ);
+    }
+
+    @Override
+    public void deleteBatchesBefore(long batchId) {
+        for (TableField<?, Long> stagedBatchId : STAGED_BATCH_IDS) {
+            dslContext.deleteFrom(stagedBatchId.getTable()).where(stagedBatchId.lt(batchId)).execute();
+        }
+    }
+
+    @Override
+    public void discard(long batchId) {
+        for (TableField<?, Long> stagedBatchId : STAGED_BATCH_IDS) {
+            dslContext.deleteFrom(stagedBatchId.getTable()).where(stagedBatchId.eq(batchId)).execute();
+        }
+    }
+
+    @Override
+    public long stageCurrencies(long batchId, TableData currency) {
+        ColumnData id = currency.column("id");
+        ColumnData rate = currency.column("rate");
+        LinkedHashMap<String, Object[]> rowsById = new LinkedHashMap<>();
+        for (int row = 0; row < currency.rowCount(); row++) {
+            String currencyId = textValue(id, row);
+            if (currencyId != null) {
+                rowsById.put(currencyId, new Object[]{batchId, currencyId, longValue(rate, row)});
+            }
+        }
+        return copyInto(Tables.CURRENCY_STAGING, List.of(
+                Tables.CURRENCY_STAGING.BATCH_ID,
+                Tables.CURRENCY_STAGING.ID,
+                Tables.CURRENCY_STAGING.RATE
+        ), rowsById.values());
+    }
+
+    @Override
+    public long stageCategories(long batchId, TableData categories) {
+        ColumnData id = categories.column("id");
+        ColumnData parentId = categories.column("parent_id");
+        ColumnData name = categories.column("name");
+        LinkedHashMap<Long, Object[]> rowsById = new LinkedHashMap<>();
+        for (int row = 0; row < categories.rowCount(); row++) {
+            Long categoryId = longValue(id, row);
+            if (categoryId != null) {
+                rowsById.put(categoryId, new Object[]{
+                        batchId,
+                        categoryId,
+                        longValue(parentId, row),
+                        textValue(name, row)
+                });
+            }
+        }
+        return copyInto(Tables.CATEGORIES_STAGING, List.of(
+                Tables.CATEGORIES_STAGING.BATCH_ID,
+                Tables.CATEGORIES_STAGING.ID,
+                Tables.CATEGORIES_STAGING.PARENT_ID,
+                Tables.CATEGORIES_STAGING.NAME
+        ), rowsById.values());
+    }
+
+    @Override
+    public long stageVendors(long batchId, List<OfferVendor> offerVendors) {
+        LinkedHashMap<String, String> uniqueVendorByCode = new LinkedHashMap<>();
+        for (OfferVendor offerVendor : offerVendors) {
+            String code = blankToNull(offerVendor.vendorCode());
+            if (code == null) {
+                continue;
+            }
+            uniqueVendorByCode.putIfAbsent(code, blankToNull(offerVendor.vendor()));
+        }
+
+        List<Object[]> rows = new ArrayList<>(uniqueVendorByCode.size());
+        for (Map.Entry<String, String> entry : uniqueVendorByCode.entrySet()) {
+            rows.add(new Object[]{batchId, entry.getKey(), entry.getValue()});
+        }
+        return copyInto(Tables.VENDOR_STAGING, List.of(
+                Tables.VENDOR_STAGING.BATCH_ID,
+                Tables.VENDOR_STAGING.CODE,
+                Tables.VENDOR_STAGING.NAME
+        ), rows);
+    }
+
+    @Override
+    public long stageOffers(long batchId, TableData offers, int[] rows) {
+        ColumnData id = offers.column("id");
+        ColumnData categoryId = offers.column("category_id");
+        ColumnData currencyId = offers.column("currency_id");
+        ColumnData vendorCode = offers.column("vendor_code");
+        ColumnData available = offers.column("available");
+        ColumnData price = offers.column("price");
+        ColumnData count = offers.column("count");
+
+        List<Object[]> stagedRows = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            stagedRows.add(new Object[]{
+                    batchId,
+                    longValue(id, row),
+                    longValue(categoryId, row),
+                    textValue(currencyId, row),
+                    textValue(vendorCode, row),
+                    booleanValue(available, row),
+                    longValue(price, row),
+                    longValue(count, row)
+            });
+        }
+        return copyInto(Tables.OFFERS_STAGING, List.of(
+                Tables.OFFERS_STAGING.BATCH_ID,
+                Tables.OFFERS_STAGING.ID,
+                Tables.OFFERS_STAGING.CATEGORY_ID,
+                Tables.OFFERS_STAGING.CURRENCY_ID,
+                Tables.OFFERS_STAGING.VENDOR_CODE,
+                Tables.OFFERS_STAGING.AVAILABLE,
+                Tables.OFFERS_STAGING.PRICE,
+                Tables.OFFERS_STAGING.COUNT
+        ), stagedRows);
+    }
+
+    @Override
+    public long stageOfferMetas(long batchId, List<OfferMeta> offerMetas) {
+        LinkedHashMap<Long, Object[]> rowsByOfferId = new LinkedHashMap<>();
+        for (OfferMeta offerMeta : offerMetas) {
+            rowsByOfferId.put(offerMeta.offerId(), new Object[]{
+                    batchId,
+                    offerMeta.offerId(),
+                    blankToNull(offerMeta.url()),
+                    blankToNull(offerMeta.picture()),
+                    blankToNull(offerMeta.name()),
+                    blankToNull(offerMeta.description())
+            });
+        }
+        return copyInto(Tables.OFFER_META_STAGING, List.of(
+                Tables.OFFER_META_STAGING.BATCH_ID,
+                Tables.OFFER_META_STAGING.OFFER_ID,
+                Tables.OFFER_META_STAGING.URL,
+                Tables.OFFER_META_STAGING.PICTURE,
+                Tables.OFFER_META_STAGING.NAME,
+                Tables.OFFER_META_STAGING.DESCRIPTION
+        ), rowsByOfferId.values());
+    }
+
+    @Override
+    public long stageOfferParams(long batchId, List<OfferParam> offerParams) {
+        Set<String> paramNames = new HashSet<>();
+        for (OfferParam offerParam : offerParams) {
+            String paramName = blankToNull(offerParam.paramName());
+            if (paramName != null) {
+                paramNames.add(paramName);
+            }
+        }
+        Map<String, Integer> paramNameIds = paramNameRepository.resolveIds(paramNames);
+
+        List<Object[]> rows = new ArrayList<>(offerParams.size());
+        for (OfferParam offerParam : offerParams) {
+            String paramName = blankToNull(offerParam.paramName());
+            if (paramName == null) {
+                continue;
+            }
+            rows.add(new Object[]{
+                    batchId,
+                    offerParam.offerId(),
+                    paramNameIds.get(paramName),
+                    blankToNull(offerParam.paramValue())
+            });
+        }
+        return copyInto(Tables.OFFER_PARAMS_STAGING, List.of(
+                Tables.OFFER_PARAMS_STAGING.BATCH_ID,
+                Tables.OFFER_PARAMS_STAGING.OFFER_ID,
+                Tables.OFFER_PARAMS_STAGING.PARAM_NAME_ID,
+                Tables.OFFER_PARAMS_STAGING.PARAM_VALUE
+        ), rows);
+    }
+
+    @Override
+    public void publish(long batchId, boolean bulk) {
+        dslContext.insertInto(Tables.CURRENCY, Tables.CURRENCY.ID, Tables.CURRENCY.RATE)
+                .select(dslContext.select(Tables.CURRENCY_STAGING.ID, Tables.CURRENCY_STAGING.RATE)
+                        .from(Tables.CURRENCY_STAGING)
+                        .where(Tables.CURRENCY_STAGING.BATCH_ID.eq(batchId)))
+                .onConflict(Tables.CURRENCY.ID)
+                .doUpdate()
+                .set(Tables.CURRENCY.RATE, DSL.excluded(Tables.CURRENCY.RATE))
+                .execute();
+        dslContext.insertInto(Tables.CATEGORIES,
+                        Tables.CATEGORIES.ID,
+                        Tables.CATEGORIES.PARENT_ID,
+                        Tables.CATEGORIES.NAME)
+                .select(dslContext.select(
+                                Tables.CATEGORIES_STAGING.ID,
+                                Tables.CATEGORIES_STAGING.PARENT_ID,
+                                Tables.CATEGORIES_STAGING.NAME)
+                        .from(Tables.CATEGORIES_STAGING)
+                        .where(Tables.CATEGORIES_STAGING.BATCH_ID.eq(batchId)))
+                .onConflict(Tables.CATEGORIES.ID)
+                .doUpdate()
+                .set(Tables.CATEGORIES.PARENT_ID, DSL.excluded(Tables.CATEGORIES.PARENT_ID))
+                .set(Tables.CATEGORIES.NAME, DSL.excluded(Tables.CATEGORIES.NAME))
+                .execute();
+
+        dslContext.insertInto(Tables.VENDOR, Tables.VENDOR.CODE, Tables.VENDOR.NAME)
+                .select(dslContext.select(Tables.VENDOR_STAGING.CODE, Tables.VENDOR_STAGING.NAME)
+                        .from(Tables.VENDOR_STAGING)
+                        .where(Tables.VENDOR_STAGING.BATCH_ID.eq(batchId)))
+                .onConflict(Tables.VENDOR.CODE)
+                .doUpdate()
+                .set(Tables.VENDOR.NAME, DSL.excluded(Tables.VENDOR.NAME))
+                .execute();
+
+        dslContext.insertInto(Tables.OFFERS,
+                        Tables.OFFERS.ID,
+                        Tables.OFFERS.CATEGORY_ID,
+                        Tables.OFFERS.CURRENCY_ID,
+                        Tables.OFFERS.VENDOR_CODE,
+                        Tables.OFFERS.AVAILABLE,
+                        Tables.OFFERS.PRICE,
+                        Tables.OFFERS.COUNT)
+                .select(dslContext.select(
+                                Tables.OFFERS_STAGING.ID,
+                                Tables.OFFERS_STAGING.CATEGORY_ID,
+                                Tables.OFFERS_STAGING.CURRENCY_ID,
+                                Tables.OFFERS_STAGING.VENDOR_CODE,
+                                Tables.OFFERS_STAGING.AVAILABLE,
+                                Tables.OFFERS_STAGING.PRICE,
+                                Tables.OFFERS_STAGING.COUNT)
+                        .from(Tables.OFFERS_STAGING)
+                        .where(Tables.OFFERS_STAGING.BATCH_ID.eq(batchId)))
+                .onConflict(Tables.OFFERS.ID)
+                .doUpdate()
+                .set(Tables.OFFERS.CATEGORY_ID, DSL.excluded(Tables.OFFERS.CATEGORY_ID))
+                .set(Tables.OFFERS.CURRENCY_ID, DSL.excluded(Tables.OFFERS.CURRENCY_ID))
+                .set(Tables.OFFERS.VENDOR_CODE, DSL.excluded(Tables.OFFERS.VENDOR_CODE))
+                .set(Tables.OFFERS.AVAILABLE, DSL.excluded(Tables.OFFERS.AVAILABLE))
+                .set(Tables.OFFERS.PRICE, DSL.excluded(Tables.OFFERS.PRICE))
+                .set(Tables.OFFERS.COUNT, DSL.excluded(Tables.OFFERS.COUNT))
+                .execute();
+
+        if (!bulk && offerMetaWriteMode == RepositoryWriteProperties.WriteMode.MERGE) {
+            mergeOfferMetas(batchId);
+        } else {
+            replaceOfferMetas(batchId);
+        }
+        if (!bulk && offerParamsWriteMode == RepositoryWriteProperties.WriteMode.MERGE) {
+            mergeOfferParams(batchId);
+        } else {
+            replaceOfferParams(batchId);
+        }
+
+        discard(batchId);
+    }
+
+    private void replaceOfferMetas(long batchId) {
+        dslContext.deleteFrom(Tables.OFFER_META)
+                .where(Tables.OFFER_META.OFFER_ID.in(stagedOfferIds(batchId)))
+                .execute();
+        dslContext.insertInto(Tables.OFFER_META,
+                        Tables.OFFER_META.OFFER_ID,
+                        Tables.OFFER_META.URL,
+                        Tables.OFFER_META.PICTURE,
+                        Tables.OFFER_META.NAME,
+                        Tables.OFFER_META.DESCRIPTION)
+                .select(dslContext.select(
+                                Tables.OFFER_META_STAGING.OFFER_ID,
+                                Tables.OFFER_META_STAGING.URL,
+                                Tables.OFFER_META_STAGING.PICTURE,
+                                Tables.OFFER_META_STAGING.NAME,
+                                Tables.OFFER_META_STAGING.DESCRIPTION)
+                        .from(Tables.OFFER_META_STAGING)
+                        .where(Tables.OFFER_META_STAGING.BATCH_ID.eq(batchId)))
+                .execute();
+    }
+
+    private void mergeOfferMetas(long batchId) {
+        dslContext.deleteFrom(Tables.OFFER_META)
+                .where(Tables.OFFER_META.OFFER_ID.in(stagedOfferIds(batchId)))
+                .andNotExists(DSL.selectOne()
+                        .from(Tables.OFFER_META_STAGING)
+                        .where(Tables.OFFER_META_STAGING.BATCH_ID.eq(batchId))
+                        .and(Tables.OFFER_META_STAGING.OFFER_ID.eq(Tables.OFFER_META.OFFER_ID)))
+                .execute();
+        dslContext.insertInto(Tables.OFFER_META,
+                        Tables.OFFER_META.OFFER_ID,
+                        Tables.OFFER_META.URL,
+                        Tables.OFFER_META.PICTURE,
+                        Tables.OFFER_META.NAME,
+                        Tables.OFFER_META.DESCRIPTION)
+                .select(dslContext.select(
+                                Tables.OFFER_META_STAGING.OFFER_ID,
+                                Tables.OFFER_META_STAGING.URL,
+                                Tables.OFFER_META_STAGING.PICTURE,
+                                Tables.OFFER_META_STAGING.NAME,
+                                Tables.OFFER_META_STAGING.DESCRIPTION)
+                        .from(Tables.OFFER_META_STAGING)
+                        .where(Tables.OFFER_META_STAGING.BATCH_ID.eq(batchId)))
+                .onConflict(Tables.OFFER_META.OFFER_ID)
+                .doUpdate()
+                .set(Tables.OFFER_META.URL, DSL.excluded(Tables.OFFER_META.URL))
+                .set(Tables.OFFER_META.PICTURE, DSL.excluded(Tables.OFFER_META.PICTURE))
+                .set(Tables.OFFER_META.NAME, DSL.excluded(Tables.OFFER_META.NAME))
+                .set(Tables.OFFER_META.DESCRIPTION, DSL.excluded(Tables.OFFER_META.DESCRIPTION))
+                .where(DSL.row(
+                        Tables.OFFER_META.URL,
+                        Tables.OFFER_META.PICTURE,
+                        Tables.OFFER_META.NAME,
+                        Tables.OFFER_META.DESCRIPTION
+                ).isDistinctFrom(DSL.row(
+                        DSL.excluded(Tables.OFFER_META.URL),
+                        DSL.excluded(Tables.OFFER_META.PICTURE),
+                        DSL.excluded(Tables.OFFER_META.NAME),
+                        DSL.excluded(Tables.OFFER_META.DESCRIPTION)
+                )))
+                .execute();
+    }
+
+    private void replaceOfferParams(long batchId) {
+        dslContext.deleteFrom(Tables.OFFER_PARAMS)
+                .where(Tables.OFFER_PARAMS.OFFER_ID.in(stagedOfferIds(batchId)))
+                .execute();
+        dslContext.insertInto(Tables.OFFER_PARAMS,
+                        Tables.OFFER_PARAMS.OFFER_ID,
+                        Tables.OFFER_PARAMS.PARAM_NAME_ID,
+                        Tables.OFFER_PARAMS.PARAM_VALUE)
+                .select(dslContext.select(
+                                Tables.OFFER_PARAMS_STAGING.OFFER_ID,
+                                Tables.OFFER_PARAMS_STAGING.PARAM_NAME_ID,
+                                Tables.OFFER_PARAMS_STAGING.PARAM_VALUE)
+                        .from(Tables.OFFER_PARAMS_STAGING)
+                        .where(Tables.OFFER_PARAMS_STAGING.BATCH_ID.eq(batchId)))
+                .execute();
+    }
+
+    private void mergeOfferParams(long batchId) {
+        Table<?> stored = dslContext.select(
+                        Tables.OFFER_PARAMS.ID,
+                        Tables.OFFER_PARAMS.OFFER_ID,
+                        Tables.OFFER_PARAMS.PARAM_NAME_ID,
+                        Tables.OFFER_PARAMS.PARAM_VALUE,
+                        DSL.rowNumber().over(DSL.partitionBy(
+                                Tables.OFFER_PARAMS.OFFER_ID,
+                                Tables.OFFER_PARAMS.PARAM_NAME_ID,
+                                Tables.OFFER_PARAMS.PARAM_VALUE
+                        ).orderBy(Tables.OFFER_PARAMS.ID)).as(OCCURRENCE))
+                .from(Tables.OFFER_PARAMS)
+                .where(Tables.OFFER_PARAMS.OFFER_ID.in(stagedOfferIds(batchId)))
+                .asTable("stored");
+        Table<?> staged = dslContext.select(
+                        Tables.OFFER_PARAMS_STAGING.OFFER_ID,
+                        Tables.OFFER_PARAMS_STAGING.PARAM_NAME_ID,
+                        Tables.OFFER_PARAMS_STAGING.PARAM_VALUE,
+                        DSL.rowNumber().over(DSL.partitionBy(
+                                Tables.OFFER_PARAMS_STAGING.OFFER_ID,
+                                Tables.OFFER_PARAMS_STAGING.PARAM_NAME_ID,
+                                Tables.OFFER_PARAMS_STAGING.PARAM_VALUE
+                        )).as(OCCURRENCE))
+                .from(Tables.OFFER_PARAMS_STAGING)
+                .where(Tables.OFFER_PARAMS_STAGING.BATCH_ID.eq(batchId))
+                .asTable("staged");
+        Condition sameOccurrence = field(stored, Tables.OFFER_PARAMS.OFFER_ID)
+                .eq(field(staged, Tables.OFFER_PARAMS.OFFER_ID))
+                .and(field(stored, Tables.OFFER_PARAMS.PARAM_NAME_ID)
+                        .eq(field(staged, Tables.OFFER_PARAMS.PARAM_NAME_ID)))
+                .and(field(stored, Tables.OFFER_PARAMS.PARAM_VALUE)
+                        .isNotDistinctFrom(field(staged, Tables.OFFER_PARAMS.PARAM_VALUE)))
+                .and(stored.field(OCCURRENCE, Integer.class).eq(staged.field(OCCURRENCE, Integer.class)));
+
+        dslContext.deleteFrom(Tables.OFFER_PARAMS)
+                .where(Tables.OFFER_PARAMS.ID.in(dslContext.select(field(stored, Tables.OFFER_PARAMS.ID))
+                        .from(stored)
+                        .whereNotExists(DSL.selectOne().from(staged).where(sameOccurrence))))
+                .execute();
+        dslContext.insertInto(Tables.OFFER_PARAMS,
+                        Tables.OFFER_PARAMS.OFFER_ID,
+                        Tables.OFFER_PARAMS.PARAM_NAME_ID,
+                        Tables.OFFER_PARAMS.PARAM_VALUE)
+                .select(dslContext.select(
+                                field(staged, Tables.OFFER_PARAMS.OFFER_ID),
+                                field(staged, Tables.OFFER_PARAMS.PARAM_NAME_ID),
+                                field(staged, Tables.OFFER_PARAMS.PARAM_VALUE))
+                        .from(staged)
+                        .whereNotExists(DSL.selectOne().from(stored).where(sameOccurrence)))
+                .execute();
+    }
+
+    private Select<Record1<Long>> stagedOfferIds(long batchId) {
+        return dslContext.select(Tables.OFFERS_STAGING.ID)
+                .from(Tables.OFFERS_STAGING)
+                .where(Tables.OFFERS_STAGING.BATCH_ID.eq(batchId));
+    }
+
+    private <T> Field<T> field(Table<?> table, Field<T> field) {
+        return table.field(field.getName(), field.getType());
+    }
+}
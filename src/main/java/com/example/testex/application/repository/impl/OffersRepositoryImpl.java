@@ -1,41 +1,68 @@
 package com.example.testex.application.repository.impl;
 
+import com.example.testex.application.config.RepositoryWriteProperties;
 import com.example.testex.application.repository.OffersRepository;
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.domain.model.TableData;
 import com.example.testex.jooq.Tables;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.jooq.DSLContext;
 import org.jooq.Query;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class OffersRepositoryImpl extends BaseJooqRepository implements OffersRepository {
 
-    public OffersRepositoryImpl(DSLContext dslContext) {
+    private final RepositoryWriteProperties.WriteMode writeMode;
+    private final int unnestChunkSize;
+
+    public OffersRepositoryImpl(DSLContext dslContext, RepositoryWriteProperties repositoryWriteProperties) {
         super(dslContext);
+        this.writeMode = repositoryWriteProperties.writeModeFor("offers");
+        this.unnestChunkSize = repositoryWriteProperties.getUnnestChunkSize();
     }
 
     @Override
-    public Set<Long> upsert(List<Map<String, String>> rows) {
+    public Set<Long> upsert(TableData tableData) {
+        OfferColumns columns = new OfferColumns(tableData);
+        if (writeMode == RepositoryWriteProperties.WriteMode.COPY) {
+            return copyUpsert(uniqueRowsById(tableData.rowCount(), columns));
+        }
+        if (writeMode == RepositoryWriteProperties.WriteMode.UNNEST) {
+            LinkedHashMap<Long, Object[]> rowsById = uniqueRowsById(tableData.rowCount(), columns);
+            unnestUpsert(Tables.OFFERS, List.of(
+                    Tables.OFFERS.ID,
+                    Tables.OFFERS.CATEGORY_ID,
+                    Tables.OFFERS.CURRENCY_ID,
+                    Tables.OFFERS.VENDOR_CODE,
+                    Tables.OFFERS.AVAILABLE,
+                    Tables.OFFERS.PRICE,
+                    Tables.OFFERS.COUNT
+            ), List.of(Tables.OFFERS.ID), rowsById.values(), unnestChunkSize);
+            return new LinkedHashSet<>(rowsById.keySet());
+        }
+
         Set<Long> offerIds = new LinkedHashSet<>();
         List<Query> queries = new ArrayList<>();
 
-        for (Map<String, String> row : rows) {
-            Long id = parseLongSafe(row.get("id"));
+        for (int row = 0; row < tableData.rowCount(); row++) {
+            Long id = longValue(columns.id(), row);
             if (id == null) {
                 continue;
             }
             offerIds.add(id);
 
-            Long categoryId = parseLongSafe(row.get("category_id"));
-            String currencyId = blankToNull(row.get("currency_id"));
-            String vendorCode = blankToNull(row.get("vendor_code"));
-            Boolean available = parseBooleanSafe(row.get("available"));
-            Long price = parseLongSafe(row.get("price"));
-            Long count = parseLongSafe(row.get("count"));
+            Long categoryId = longValue(columns.categoryId(), row);
+            String currencyId = textValue(columns.currencyId(), row);
+            String vendorCode = textValue(columns.vendorCode(), row);
+            Boolean available = booleanValue(columns.available(), row);
+            Long price = longValue(columns.price(), row);
+            Long count = longValue(columns.count(), row);
 
             queries.add(dslContext.insertInto(Tables.OFFERS)
                     .set(Tables.OFFERS.ID, id)
@@ -58,4 +85,93 @@ public class OffersRepositoryImpl extends BaseJooqRepository implements OffersRe
         executeBatch(queries);
         return offerIds;
     }
+
+    private LinkedHashMap<Long, Object[]> uniqueRowsById(int rowCount, OfferColumns columns) {
+        LinkedHashMap<Long, Object[]> rowsById = new LinkedHashMap<>();
+        for (int row = 0; row < rowCount; row++) {
+            Long id = longValue(columns.id(), row);
+            if (id == null) {
+                continue;
+            }
+            rowsById.put(id, new Object[]{
+                    id,
+                    longValue(columns.categoryId(), row),
+                    textValue(columns.currencyId(), row),
+                    textValue(columns.vendorCode(), row),
+                    booleanValue(columns.available(), row),
+                    longValue(columns.price(), row),
+                    longValue(columns.count(), row)
+            });
+        }
+        return rowsById;
+    }
+
+    private Set<Long> copyUpsert(LinkedHashMap<Long, Object[]> rowsById) {
+        if (rowsById.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+
+        long batchId = copyIntoStaging(Tables.OFFERS_STAGING, Tables.OFFERS_STAGING.BATCH_ID, List.of(
+                Tables.OFFERS_STAGING.ID,
+                Tables.OFFERS_STAGING.CATEGORY_ID,
+                Tables.OFFERS_STAGING.CURRENCY_ID,
+                Tables.OFFERS_STAGING.VENDOR_CODE,
+                Tables.OFFERS_STAGING.AVAILABLE,
+                Tables.OFFERS_STAGING.PRICE,
+                Tables.OFFERS_STAGING.COUNT
+        ), rowsById.values());
+
+        dslContext.insertInto(Tables.OFFERS,
+                        Tables.OFFERS.ID,
+                        Tables.OFFERS.CATEGORY_ID,
+                        Tables.OFFERS.CURRENCY_ID,
+                        Tables.OFFERS.VENDOR_CODE,
+                        Tables.OFFERS.AVAILABLE,
+                        Tables.OFFERS.PRICE,
+                        Tables.OFFERS.COUNT)
+                .select(dslContext.select(
+                                Tables.OFFERS_STAGING.ID,
+                                Tables.OFFERS_STAGING.CATEGORY_ID,
+                                Tables.OFFERS_STAGING.CURRENCY_ID,
+                                Tables.OFFERS_STAGING.VENDOR_CODE,
+                                Tables.OFFERS_STAGING.AVAILABLE,
+                                Tables.OFFERS_STAGING.PRICE,
+                                Tables.OFFERS_STAGING.COUNT)
+                        .from(Tables.OFFERS_STAGING)
+                        .where(Tables.OFFERS_STAGING.BATCH_ID.eq(batchId)))
+                .onConflict(Tables.OFFERS.ID)
+                .doUpdate()
+                .set(Tables.OFFERS.CATEGORY_ID, DSL.excluded(Tables.OFFERS.CATEGORY_ID))
+                .set(Tables.OFFERS.CURRENCY_ID, DSL.excluded(Tables.OFFERS.CURRENCY_ID))
+                .set(Tables.OFFERS.VENDOR_CODE, DSL.excluded(Tables.OFFERS.VENDOR_CODE))
+                .set(Tables.OFFERS.AVAILABLE, DSL.excluded(Tables.OFFERS.AVAILABLE))
+                .set(Tables.OFFERS.PRICE, DSL.excluded(Tables.OFFERS.PRICE))
+                .set(Tables.OFFERS.COUNT, DSL.excluded(Tables.OFFERS.COUNT))
+                .execute();
+        deleteStaged(Tables.OFFERS_STAGING, Tables.OFFERS_STAGING.BATCH_ID, batchId);
+        return new LinkedHashSet<>(rowsById.keySet());
+    }
+
+    private record OfferColumns(
+            ColumnData id,
+            ColumnData categoryId,
+            ColumnData currencyId,
+            ColumnData vendorCode,
+            ColumnData available,
+            ColumnData price,
+            ColumnData count
+    ) {
+
+        private OfferColumns(TableData tableData) {
+            this(
+                    tableData.column("id"),
+                    tableData.column("category_id"),
+                    tableData.column("currency_id"),
+                    tableData.column("vendor_code"),
+                    tableData.column("available"),
+                    tableData.column("price"),
+                    tableData.column("count")
+            );
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package com.example.testex.application.repository.impl;
+
+import com.example.testex.application.repository.ParamNameRepository;
+import com.example.testex.jooq.Tables;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jooq.DSLContext;
+import org.jooq.Record2;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Repository
+public class ParamNameRepositoryImpl extends BaseJooqRepository implements ParamNameRepository {
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final TransactionTemplate independentTransaction;
+
+    public ParamNameRepositoryImpl(DSLContext dslContext, PlatformTransactionManager transactionManager) {
+        super(dslContext);
+        this.independentTransaction = new TransactionTemplate(transactionManager);
+        this.independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public Map<String, Integer> resolveIds(Collection<String> paramNames) {
+        Map<String, Integer> resolved = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String paramName : paramNames) {
+            Integer id = idsByName.get(paramName);
+            if (id != null) {
+                resolved.put(paramName, id);
+            } else {
+                missing.add(paramName);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        String[] names = missing.toArray(String[]::new);
+        independentTransaction.executeWithoutResult(status -> {
+            dslContext.insertInto(Tables.PARAM_NAME, Tables.PARAM_NAME.NAME)
+                    .select(DSL.select(DSL.field(DSL.name("source", "name"), String.class))
+                            .from(DSL.unnest(names).as("source", "name")))
+                    .onConflict(Tables.PARAM_NAME.NAME)
+                    .doNothing()
+                    .execute();
+            for (Record2<Integer, String> record : dslContext
+                    .select(Tables.PARAM_NAME.ID, Tables.PARAM_NAME.NAME)
+                    .from(Tables.PARAM_NAME)
+                    .where(Tables.PARAM_NAME.NAME.eq(DSL.any(names)))
+                    .fetch()) {
+                idsByName.put(record.value2(), record.value1());
+                resolved.put(record.value2(), record.value1());
+            }
+        });
+        return resolved;
+    }
+}
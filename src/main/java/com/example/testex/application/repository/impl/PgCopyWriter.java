@@ -0,0 +1,94 @@
+package com.example.testex.application.repository.impl;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+final class PgCopyWriter implements AutoCloseable {
+
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 4096);
+
+    private PgCopyWriter(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    static PgCopyWriter open(Connection connection, String copySql) throws SQLException {
+        return new PgCopyWriter(connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql));
+    }
+
+    void writeRow(Object[] values) throws SQLException {
+        appendRow(buffer, values);
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    /**
+     * Appends one row in COPY csv format: null is an empty unquoted field, every text is quoted, so an empty
+     * string stays distinct from null and quotes, commas and newlines survive.
+     */
+    static void appendRow(StringBuilder buffer, Object[] values) {
+        for (int index = 0; index < values.length; index++) {
+            if (index > 0) {
+                buffer.append(',');
+            }
+            appendValue(buffer, values[index]);
+        }
+        buffer.append('\n');
+    }
+
+    private static void appendValue(StringBuilder buffer, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Boolean booleanValue) {
+            buffer.append(booleanValue ? 't' : 'f');
+            return;
+        }
+        if (value instanceof BigDecimal decimalValue) {
+            buffer.append(decimalValue.toPlainString());
+            return;
+        }
+        if (value instanceof Number) {
+            buffer.append(value);
+            return;
+        }
+        String text = value.toString();
+        buffer.append('"');
+        for (int index = 0; index < text.length(); index++) {
+            char character = text.charAt(index);
+            if (character == '"') {
+                buffer.append('"');
+            }
+            buffer.append(character);
+        }
+        buffer.append('"');
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.testex.application.repository.impl;
+
+import com.example.testex.application.repository.SchemaMetadataRepository;
+import com.example.testex.domain.model.SchemaSnapshot;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SchemaMetadataRepositoryImpl extends BaseJooqRepository implements SchemaMetadataRepository {
+
+    private static final String SNAPSHOT_SQL = """
+            select c.relname::text as table_name,
+                   a.attname::text as column_name,
+                   case when a.atttypid = 'bpchar'::regtype then 'character'
+                        else format_type(a.atttypid, null) end as data_type,
+                   coalesce(a.attnum = any(pk.conkey), false) as primary_key,
+                   idx.index_names,
+                   idx.index_definitions,
+                   idx.index_primary,
+                   idx.index_constraint,
+                   con.constraint_names,
+                   con.constraint_types,
+                   con.constraint_definitions,
+                   con.referenced_tables
+            from pg_catalog.pg_class c
+            join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+            left join pg_catalog.pg_attribute a
+                   on a.attrelid = c.oid and a.attnum > 0 and not a.attisdropped
+            left join pg_catalog.pg_constraint pk on pk.conrelid = c.oid and pk.contype = 'p'
+            left join lateral (
+                select array_agg(i.relname::text order by i.relname) as index_names,
+                       array_agg(pg_catalog.pg_get_indexdef(x.indexrelid) order by i.relname) as index_definitions,
+                       array_agg(x.indisprimary order by i.relname) as index_primary,
+                       array_agg(exists(select 1 from pg_catalog.pg_constraint ic where ic.conindid = x.indexrelid)
+                                 order by i.relname) as index_constraint
+                from pg_catalog.pg_index x
+                join pg_catalog.pg_class i on i.oid = x.indexrelid
+                where x.indrelid = c.oid
+            ) idx on true
+            left join lateral (
+                select array_agg(k.conname::text order by k.conname) as constraint_names,
+                       array_agg(k.contype::text order by k.conname) as constraint_types,
+                       array_agg(pg_catalog.pg_get_constraintdef(k.oid) order by k.conname) as constraint_definitions,
+                       array_agg(r.relname::text order by k.conname) as referenced_tables
+                from pg_catalog.pg_constraint k
+                left join pg_catalog.pg_class r on r.oid = k.confrelid
+                where k.conrelid = c.oid
+            ) con on true
+            where n.nspname = ? and c.relkind in ('r', 'p', 'v', 'f')
+            order by c.relname, a.attnum
+            """;
+
+    public SchemaMetadataRepositoryImpl(DSLContext dslContext) {
+        super(dslContext);
+    }
+
+    @Override
+    public SchemaSnapshot loadSnapshot(String schemaName) {
+        LinkedHashMap<String, TableBuilder> builders = new LinkedHashMap<>();
+        for (Record record : dslContext.resultQuery(SNAPSHOT_SQL, schemaName).fetch()) {
+            String tableName = record.get("table_name", String.class);
+            TableBuilder builder = builders.computeIfAbsent(tableName, name -> new TableBuilder(name, record));
+            String columnName = record.get("column_name", String.class);
+            if (columnName == null) {
+                continue;
+            }
+            builder.columnTypes.put(columnName, record.get("data_type", String.class));
+            if (Boolean.TRUE.equals(record.get("primary_key", Boolean.class))) {
+                builder.primaryKeyColumns.add(columnName);
+            }
+        }
+
+        LinkedHashMap<String, SchemaSnapshot.Table> tables = new LinkedHashMap<>();
+        for (TableBuilder builder : builders.values()) {
+            tables.put(builder.tableName, new SchemaSnapshot.Table(
+                    builder.tableName,
+                    builder.columnTypes,
+                    List.copyOf(builder.primaryKeyColumns),
+                    builder.indexes,
+                    builder.constraints
+            ));
+        }
+        return new SchemaSnapshot(schemaName, tables, Instant.now());
+    }
+
+    private static final class TableBuilder {
+
+        private final String tableName;
+        private final LinkedHashMap<String, String> columnTypes = new LinkedHashMap<>();
+        private final List<String> primaryKeyColumns = new ArrayList<>();
+        private final List<SchemaSnapshot.Index> indexes = new ArrayList<>();
+        private final List<SchemaSnapshot.Constraint> constraints = new ArrayList<>();
+
+        private TableBuilder(String tableName, Record record) {
+            this.tableName = tableName;
+            String[] names = record.get("index_names", String[].class);
+            String[] definitions = record.get("index_definitions", String[].class);
+            Boolean[] primary = record.get("index_primary", Boolean[].class);
+            Boolean[] constraint = record.get("index_constraint", Boolean[].class);
+            if (names != null) {
+                for (int index = 0; index < names.length; index++) {
+                    indexes.add(new SchemaSnapshot.Index(
+                            names[index],
+                            definitions[index],
+                            Boolean.TRUE.equals(primary[index]),
+                            Boolean.TRUE.equals(constraint[index])
+                    ));
+                }
+            }
+
+            String[] constraintNames = record.get("constraint_names", String[].class);
+            String[] constraintTypes = record.get("constraint_types", String[].class);
+            String[] constraintDefinitions = record.get("constraint_definitions", String[].class);
+            String[] referencedTables = record.get("referenced_tables", String[].class);
+            if (constraintNames != null) {
+                for (int index = 0; index < constraintNames.length; index++) {
+                    constraints.add(new SchemaSnapshot.Constraint(
+                            constraintNames[index],
+                            constraintTypes[index],
+                            constraintDefinitions[index],
+                            referencedTables[index]
+                    ));
+                }
+            }
+        }
+    }
+}
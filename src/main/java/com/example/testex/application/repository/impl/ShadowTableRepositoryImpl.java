@@ -0,0 +1,306 @@
+package com.example.testex.application.repository.impl;
+
+import com.example.testex.application.repository.ParamNameRepository;
+import com.example.testex.application.repository.ShadowTableRepository;
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.domain.model.OfferMeta;
+import com.example.testex.domain.model.OfferParam;
+import com.example.testex.domain.model.SchemaSnapshot;
+import com.example.testex.domain.model.TableData;
+import com.example.testex.jooq.Tables;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ShadowTableRepositoryImpl extends BaseJooqRepository implements ShadowTableRepository {
+
+    private static final String SHADOW_SUFFIX = "_shadow";
+    private static final String RETIRED_SUFFIX = "_retired";
+    private static final Pattern INDEX_DEFINITION = Pattern.compile(
+            "^CREATE (UNIQUE )?INDEX \\S+ ON (?:ONLY )?\\S+ (USING .*)$"
+    );
+    private static final Pattern REFERENCES = Pattern.compile("REFERENCES \\S+?\\(");
+
+    private static final String OWNED_SEQUENCES_SQL = """
+            select s.relname::text as sequence_name,
+                   a.attname::text as column_name
+            from pg_catalog.pg_depend d
+            join pg_catalog.pg_class s on s.oid = d.objid and s.relkind = 'S'
+            join pg_catalog.pg_attribute a on a.attrelid = d.refobjid and a.attnum = d.refobjsubid
+            join pg_catalog.pg_class t on t.oid = d.refobjid
+            join pg_catalog.pg_namespace n on n.oid = t.relnamespace
+            where d.classid = 'pg_catalog.pg_class'::regclass
+              and d.deptype in ('a', 'i')
+              and n.nspname = ?
+              and t.relname = ?
+            """;
+
+    private final ParamNameRepository paramNameRepository;
+    private final String schemaName;
+
+    public ShadowTableRepositoryImpl(
+            DSLContext dslContext,
+            ParamNameRepository paramNameRepository,
+            @Value("${app.schema}") String schemaName
+    ) {
+        super(dslContext);
+        this.paramNameRepository = paramNameRepository;
+        this.schemaName = schemaName;
+    }
+
+    @Override
+    public void create(String tableName) {
+        drop(tableName);
+        dslContext.execute("CREATE TABLE " + qualified(shadowName(tableName))
+                + " (LIKE " + qualified(tableName) + " INCLUDING DEFAULTS)");
+    }
+
+    @Override
+    public void drop(String tableName) {
+        dslContext.execute("DROP TABLE IF EXISTS " + qualified(shadowName(tableName)));
+    }
+
+    @Override
+    public Set<Long> loadOffers(TableData offers) {
+        ColumnData id = offers.column("id");
+        ColumnData categoryId = offers.column("category_id");
+        ColumnData currencyId = offers.column("currency_id");
+        ColumnData vendorCode = offers.column("vendor_code");
+        ColumnData available = offers.column("available");
+        ColumnData price = offers.column("price");
+        ColumnData count = offers.column("count");
+
+        LinkedHashMap<Long, Object[]> rowsById = new LinkedHashMap<>();
+        for (int row = 0; row < offers.rowCount(); row++) {
+            Long offerId = longValue(id, row);
+            if (offerId == null) {
+                continue;
+            }
+            rowsById.put(offerId, new Object[]{
+                    offerId,
+                    longValue(categoryId, row),
+                    textValue(currencyId, row),
+                    textValue(vendorCode, row),
+                    booleanValue(available, row),
+                    longValue(price, row),
+                    longValue(count, row)
+            });
+        }
+
+        copyInto(shadowTable(Tables.OFFERS), List.of(
+                Tables.OFFERS.ID,
+                Tables.OFFERS.CATEGORY_ID,
+                Tables.OFFERS.CURRENCY_ID,
+                Tables.OFFERS.VENDOR_CODE,
+                Tables.OFFERS.AVAILABLE,
+                Tables.OFFERS.PRICE,
+                Tables.OFFERS.COUNT
+        ), rowsById.values());
+        return new LinkedHashSet<>(rowsById.keySet());
+    }
+
+    @Override
+    public long loadOfferMetas(Set<Long> offerIds, List<OfferMeta> offerMetas) {
+        LinkedHashMap<Long, Object[]> rowsByOfferId = new LinkedHashMap<>();
+        for (OfferMeta offerMeta : offerMetas) {
+            Long offerId = offerMeta.offerId();
+            if (offerId == null || !offerIds.contains(offerId)) {
+                continue;
+            }
+            rowsByOfferId.put(offerId, new Object[]{
+                    offerId,
+                    blankToNull(offerMeta.url()),
+                    blankToNull(offerMeta.picture()),
+                    blankToNull(offerMeta.name()),
+                    blankToNull(offerMeta.description())
+            });
+        }
+
+        return copyInto(shadowTable(Tables.OFFER_META), List.of(
+                Tables.OFFER_META.OFFER_ID,
+                Tables.OFFER_META.URL,
+                Tables.OFFER_META.PICTURE,
+                Tables.OFFER_META.NAME,
+                Tables.OFFER_META.DESCRIPTION
+        ), rowsByOfferId.values());
+    }
+
+    @Override
+    public long loadOfferParams(Set<Long> offerIds, List<OfferParam> offerParams) {
+        List<OfferParam> loadedParams = new ArrayList<>();
+        Set<String> paramNames = new HashSet<>();
+        for (OfferParam offerParam : offerParams) {
+            Long offerId = offerParam.offerId();
+            if (offerId == null || !offerIds.contains(offerId)) {
+                continue;
+            }
+            String paramName = blankToNull(offerParam.paramName());
+            if (paramName == null) {
+                continue;
+            }
+            loadedParams.add(offerParam);
+            paramNames.add(paramName);
+        }
+        Map<String, Integer> paramNameIds = paramNameRepository.resolveIds(paramNames);
+
+        List<Object[]> rows = new ArrayList<>(loadedParams.size());
+        for (OfferParam offerParam : loadedParams) {
+            rows.add(new Object[]{
+                    offerParam.offerId(),
+                    paramNameIds.get(blankToNull(offerParam.paramName())),
+                    blankToNull(offerParam.paramValue())
+            });
+        }
+
+        return copyInto(shadowTable(Tables.OFFER_PARAMS), List.of(
+                Tables.OFFER_PARAMS.OFFER_ID,
+                Tables.OFFER_PARAMS.PARAM_NAME_ID,
+                Tables.OFFER_PARAMS.PARAM_VALUE
+        ), rows);
+    }
+
+    @Override
+    public long loadFingerprints(Map<Long, Long> fingerprintsByOfferId) {
+        List<Object[]> rows = new ArrayList<>(fingerprintsByOfferId.size());
+        for (Map.Entry<Long, Long> entry : fingerprintsByOfferId.entrySet()) {
+            rows.add(new Object[]{entry.getKey(), entry.getValue()});
+        }
+        return copyInto(shadowTable(Tables.OFFER_FINGERPRINT), List.of(
+                Tables.OFFER_FINGERPRINT.OFFER_ID,
+                Tables.OFFER_FINGERPRINT.FINGERPRINT
+        ), rows);
+    }
+
+    @Override
+    public long countOffersMissingFromShadow() {
+        Field<Long> shadowOfferId = DSL.field(
+                DSL.name(schemaName, shadowName(Tables.OFFERS.getName()), Tables.OFFERS.ID.getName()),
+                Long.class
+        );
+        return dslContext.fetchCount(Tables.OFFERS, DSL.notExists(DSL.selectOne()
+                .from(shadowTable(Tables.OFFERS))
+                .where(shadowOfferId.eq(Tables.OFFERS.ID))));
+    }
+
+    @Override
+    public void addConstraints(
+            SchemaSnapshot.Table table,
+            Collection<String> constraintTypes,
+            Set<String> swappedTables
+    ) {
+        for (SchemaSnapshot.Constraint constraint : table.constraints()) {
+            if (!constraintTypes.contains(constraint.constraintType())) {
+                continue;
+            }
+            String definition = constraint.definition();
+            if (constraint.referencedTable() != null && swappedTables.contains(constraint.referencedTable())) {
+                definition = REFERENCES.matcher(definition).replaceFirst(Matcher.quoteReplacement(
+                        "REFERENCES " + qualified(shadowName(constraint.referencedTable())) + "("
+                ));
+            }
+            dslContext.execute("ALTER TABLE " + qualified(shadowName(table.tableName()))
+                    + " ADD CONSTRAINT " + quote(shadowName(constraint.constraintName())) + " " + definition);
+        }
+    }
+
+    @Override
+    public void createIndexes(SchemaSnapshot.Table table) {
+        for (SchemaSnapshot.Index index : table.indexes()) {
+            if (index.constraint()) {
+                continue;
+            }
+            Matcher matcher = INDEX_DEFINITION.matcher(index.definition());
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Unsupported index definition: " + index.definition());
+            }
+            String unique = matcher.group(1) == null ? "" : matcher.group(1);
+            dslContext.execute("CREATE " + unique + "INDEX " + quote(shadowName(index.indexName()))
+                    + " ON " + qualified(shadowName(table.tableName())) + " " + matcher.group(2));
+        }
+    }
+
+    @Override
+    public void analyze(String tableName) {
+        dslContext.execute("ANALYZE " + qualified(shadowName(tableName)));
+    }
+
+    @Override
+    public void swap(List<SchemaSnapshot.Table> tables) {
+        List<String> liveTables = new ArrayList<>();
+        for (SchemaSnapshot.Table table : tables) {
+            liveTables.add(qualified(table.tableName()));
+        }
+        dslContext.execute("LOCK TABLE " + String.join(", ", liveTables) + " IN ACCESS EXCLUSIVE MODE");
+
+        Map<String, List<Record>> ownedSequences = new LinkedHashMap<>();
+        for (SchemaSnapshot.Table table : tables) {
+            ownedSequences.put(
+                    table.tableName(),
+                    dslContext.fetch(OWNED_SEQUENCES_SQL, schemaName, table.tableName())
+            );
+        }
+
+        List<String> retiredTables = new ArrayList<>();
+        for (SchemaSnapshot.Table table : tables) {
+            dslContext.execute("ALTER TABLE " + qualified(table.tableName())
+                    + " RENAME TO " + quote(table.tableName() + RETIRED_SUFFIX));
+            dslContext.execute("ALTER TABLE " + qualified(shadowName(table.tableName()))
+                    + " RENAME TO " + quote(table.tableName()));
+            retiredTables.add(qualified(table.tableName() + RETIRED_SUFFIX));
+        }
+        for (Map.Entry<String, List<Record>> entry : ownedSequences.entrySet()) {
+            for (Record sequence : entry.getValue()) {
+                dslContext.execute("ALTER SEQUENCE " + qualified(sequence.get("sequence_name", String.class))
+                        + " OWNED BY " + qualified(entry.getKey()) + "."
+                        + quote(sequence.get("column_name", String.class)));
+            }
+        }
+        dslContext.execute("DROP TABLE " + String.join(", ", retiredTables));
+
+        for (SchemaSnapshot.Table table : tables) {
+            for (SchemaSnapshot.Constraint constraint : table.constraints()) {
+                dslContext.execute("ALTER TABLE " + qualified(table.tableName())
+                        + " RENAME CONSTRAINT " + quote(shadowName(constraint.constraintName()))
+                        + " TO " + quote(constraint.constraintName()));
+            }
+            for (SchemaSnapshot.Index index : table.indexes()) {
+                if (index.constraint()) {
+                    continue;
+                }
+                dslContext.execute("ALTER INDEX " + qualified(shadowName(index.indexName()))
+                        + " RENAME TO " + quote(index.indexName()));
+            }
+        }
+    }
+
+    private Table<?> shadowTable(Table<?> table) {
+        return DSL.table(DSL.name(schemaName, shadowName(table.getName())));
+    }
+
+    private String shadowName(String name) {
+        return name + SHADOW_SUFFIX;
+    }
+
+    private String qualified(String name) {
+        return dslContext.render(DSL.name(schemaName, name));
+    }
+
+    private String quote(String name) {
+        return dslContext.render(DSL.name(name));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.testex.application.repository.impl;
+
+import com.example.testex.application.repository.TableMaintenanceRepository;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class TableMaintenanceRepositoryImpl extends BaseJooqRepository implements TableMaintenanceRepository {
+
+    private final String schemaName;
+
+    public TableMaintenanceRepositoryImpl(DSLContext dslContext, @Value("${app.schema}") String schemaName) {
+        super(dslContext);
+        this.schemaName = schemaName;
+    }
+
+    @Override
+    public long estimateRowCount(String tableName) {
+        Record record = dslContext.fetchOne(
+                "select greatest(c.reltuples, 0)::bigint from pg_catalog.pg_class c"
+                        + " join pg_catalog.pg_namespace n on n.oid = c.relnamespace"
+                        + " where n.nspname = ? and c.relname = ?",
+                schemaName,
+                tableName
+        );
+        return record == null ? 0 : record.get(0, Long.class);
+    }
+
+    @Override
+    public void analyze(String tableName) {
+        dslContext.execute("ANALYZE " + qualified(tableName));
+    }
+
+    private String qualified(String name) {
+        return dslContext.render(DSL.name(schemaName, name));
+    }
+}
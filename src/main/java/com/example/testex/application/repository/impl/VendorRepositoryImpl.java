@@ -1,5 +1,6 @@
 package com.example.testex.application.repository.impl;
 
+import com.example.testex.application.config.RepositoryWriteProperties;
 import com.example.testex.application.repository.VendorRepository;
 import com.example.testex.domain.model.OfferVendor;
 import com.example.testex.jooq.Tables;
@@ -9,13 +10,19 @@ import java.util.List;
 import java.util.Map;
 import org.jooq.DSLContext;
 import org.jooq.Query;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class VendorRepositoryImpl extends BaseJooqRepository implements VendorRepository {
 
-    public VendorRepositoryImpl(DSLContext dslContext) {
+    private final RepositoryWriteProperties.WriteMode writeMode;
+    private final int unnestChunkSize;
+
+    public VendorRepositoryImpl(DSLContext dslContext, RepositoryWriteProperties repositoryWriteProperties) {
         super(dslContext);
+        this.writeMode = repositoryWriteProperties.writeModeFor("vendor");
+        this.unnestChunkSize = repositoryWriteProperties.getUnnestChunkSize();
     }
 
     @Override
@@ -29,6 +36,16 @@ public class VendorRepositoryImpl extends BaseJooqRepository implements VendorRe
             uniqueVendorByCode.putIfAbsent(code, blankToNull(offerVendor.vendor()));
         }
 
+        if (writeMode == RepositoryWriteProperties.WriteMode.COPY) {
+            copyUpsert(uniqueVendorByCode);
+            return;
+        }
+        if (writeMode == RepositoryWriteProperties.WriteMode.UNNEST) {
+            unnestUpsert(Tables.VENDOR, List.of(Tables.VENDOR.CODE, Tables.VENDOR.NAME), List.of(Tables.VENDOR.CODE),
+                    toRows(uniqueVendorByCode), unnestChunkSize);
+            return;
+        }
+
         List<Query> queries = new ArrayList<>();
         for (Map.Entry<String, String> entry : uniqueVendorByCode.entrySet()) {
             queries.add(dslContext.insertInto(Tables.VENDOR)
@@ -41,4 +58,31 @@ public class VendorRepositoryImpl extends BaseJooqRepository implements VendorRe
 
         executeBatch(queries);
     }
+
+    private void copyUpsert(Map<String, String> uniqueVendorByCode) {
+        if (uniqueVendorByCode.isEmpty()) {
+            return;
+        }
+
+        long batchId = copyIntoStaging(Tables.VENDOR_STAGING, Tables.VENDOR_STAGING.BATCH_ID,
+                List.of(Tables.VENDOR_STAGING.CODE, Tables.VENDOR_STAGING.NAME), toRows(uniqueVendorByCode));
+
+        dslContext.insertInto(Tables.VENDOR, Tables.VENDOR.CODE, Tables.VENDOR.NAME)
+                .select(dslContext.select(Tables.VENDOR_STAGING.CODE, Tables.VENDOR_STAGING.NAME)
+                        .from(Tables.VENDOR_STAGING)
+                        .where(Tables.VENDOR_STAGING.BATCH_ID.eq(batchId)))
+                .onConflict(Tables.VENDOR.CODE)
+                .doUpdate()
+                .set(Tables.VENDOR.NAME, DSL.excluded(Tables.VENDOR.NAME))
+                .execute();
+        deleteStaged(Tables.VENDOR_STAGING, Tables.VENDOR_STAGING.BATCH_ID, batchId);
+    }
+
+    private List<Object[]> toRows(Map<String, String> uniqueVendorByCode) {
+        List<Object[]> rows = new ArrayList<>(uniqueVendorByCode.size());
+        for (Map.Entry<String, String> entry : uniqueVendorByCode.entrySet()) {
+            rows.add(new Object[]{entry.getKey(), entry.getValue()});
+        }
+        return rows;
+    }
 }
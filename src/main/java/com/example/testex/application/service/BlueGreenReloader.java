@@ -0,0 +1,162 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.metrics.IngestionMetrics;
+import com.example.testex.application.repository.OfferFingerprintRepository;
+import com.example.testex.application.repository.ShadowTableRepository;
+import com.example.testex.application.repository.VendorRepository;
+import com.example.testex.domain.model.OfferBatch;
+import com.example.testex.domain.model.SchemaSnapshot;
+import com.example.testex.domain.model.SyncReport;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class BlueGreenReloader {
+
+    private static final List<String> SWAPPED_TABLES = List.of(
+            "offers",
+            "offer_meta",
+            "offer_params",
+            "offer_fingerprint"
+    );
+    private static final List<String> KEY_CONSTRAINTS = List.of("p", "u", "c", "x");
+    private static final List<String> REFERENTIAL_CONSTRAINTS = List.of("f");
+
+    private final ShadowTableRepository shadowTableRepository;
+    private final VendorRepository vendorRepository;
+    private final OfferFingerprintRepository offerFingerprintRepository;
+    private final OfferBatchWriter offerBatchWriter;
+    private final OfferRemover offerRemover;
+    private final SchemaSnapshotProvider schemaSnapshotProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestionMetrics ingestionMetrics;
+
+    public BlueGreenReloader(
+            ShadowTableRepository shadowTableRepository,
+            VendorRepository vendorRepository,
+            OfferFingerprintRepository offerFingerprintRepository,
+            OfferBatchWriter offerBatchWriter,
+            OfferRemover offerRemover,
+            SchemaSnapshotProvider schemaSnapshotProvider,
+            TransactionTemplate transactionTemplate,
+            IngestionMetrics ingestionMetrics
+    ) {
+        this.shadowTableRepository = shadowTableRepository;
+        this.vendorRepository = vendorRepository;
+        this.offerFingerprintRepository = offerFingerprintRepository;
+        this.offerBatchWriter = offerBatchWriter;
+        this.offerRemover = offerRemover;
+        this.schemaSnapshotProvider = schemaSnapshotProvider;
+        this.transactionTemplate = transactionTemplate;
+        this.ingestionMetrics = ingestionMetrics;
+    }
+
+    public SyncReport reload(OfferBatch offerBatch) {
+        List<SchemaSnapshot.Table> tables = swappedTables(schemaSnapshotProvider.get());
+        Set<String> tableNames = new LinkedHashSet<>(SWAPPED_TABLES);
+
+        transactionTemplate.executeWithoutResult(status -> vendorRepository.upsert(offerBatch.offerVendors()));
+        LinkedHashMap<Long, Long> fingerprints = offerBatchWriter.fingerprint(offerBatch);
+        SyncReport report = classify(fingerprints);
+
+        try {
+            long started = System.nanoTime();
+            for (String tableName : SWAPPED_TABLES) {
+                shadowTableRepository.create(tableName);
+            }
+            Set<Long> offerIds = ingestionMetrics.timeWrite("offers_shadow", offerBatch.offers().rowCount(),
+                    offerBatch.offers(),
+                    () -> shadowTableRepository.loadOffers(offerBatch.offers()));
+            long removed = shadowTableRepository.countOffersMissingFromShadow();
+            offerRemover.checkRemovedRatio(removed, offerIds::size);
+            report = report.plus(new SyncReport(0, 0, 0, removed));
+            ingestionMetrics.timeWrite("offer_meta_shadow", offerBatch.offerMetas().size(),
+                    offerBatch.offerMetas(),
+                    () -> shadowTableRepository.loadOfferMetas(offerIds, offerBatch.offerMetas()));
+            ingestionMetrics.timeWrite("offer_params_shadow", offerBatch.offerParams().size(),
+                    offerBatch.offerParams(),
+                    () -> shadowTableRepository.loadOfferParams(offerIds, offerBatch.offerParams()));
+            ingestionMetrics.timeWrite("offer_fingerprint_shadow", fingerprints.size(), fingerprints,
+                    () -> shadowTableRepository.loadFingerprints(fingerprints));
+            report = recordPhase(report, "load", started);
+
+            started = System.nanoTime();
+            for (SchemaSnapshot.Table table : tables) {
+                shadowTableRepository.addConstraints(table, KEY_CONSTRAINTS, tableNames);
+                shadowTableRepository.createIndexes(table);
+            }
+            for (SchemaSnapshot.Table table : tables) {
+                shadowTableRepository.addConstraints(table, REFERENTIAL_CONSTRAINTS, tableNames);
+                shadowTableRepository.analyze(table.tableName());
+            }
+            report = recordPhase(report, "build-indexes", started);
+
+            started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> shadowTableRepository.swap(tables));
+            report = recordPhase(report, "swap", started);
+        } catch (RuntimeException exception) {
+            for (String tableName : SWAPPED_TABLES.reversed()) {
+                shadowTableRepository.drop(tableName);
+            }
+            throw exception;
+        } finally {
+            schemaSnapshotProvider.invalidate();
+        }
+        return report;
+    }
+
+    private SyncReport recordPhase(SyncReport report, String phase, long started) {
+        long elapsed = System.nanoTime() - started;
+        ingestionMetrics.recordStage(phase, elapsed);
+        return report.withPhaseTime(phase, Duration.ofNanos(elapsed));
+    }
+
+    private List<SchemaSnapshot.Table> swappedTables(SchemaSnapshot snapshot) {
+        List<SchemaSnapshot.Table> tables = new ArrayList<>();
+        for (String tableName : SWAPPED_TABLES) {
+            SchemaSnapshot.Table table = snapshot.table(tableName);
+            if (table == null) {
+                throw new IllegalStateException("Table " + tableName + " is missing. Run Flyway migrations first.");
+            }
+            tables.add(table);
+        }
+
+        for (SchemaSnapshot.Table table : snapshot.tables().values()) {
+            if (SWAPPED_TABLES.contains(table.tableName())) {
+                continue;
+            }
+            for (SchemaSnapshot.Constraint constraint : table.constraints()) {
+                if (constraint.referencedTable() != null && SWAPPED_TABLES.contains(constraint.referencedTable())) {
+                    throw new IllegalStateException("Table " + table.tableName() + " references "
+                            + constraint.referencedTable() + " and cannot be kept across a table swap");
+                }
+            }
+        }
+        return tables;
+    }
+
+    private SyncReport classify(Map<Long, Long> fingerprints) {
+        Map<Long, Long> storedFingerprints = offerFingerprintRepository.findByOfferIds(fingerprints.keySet());
+        long inserted = 0;
+        long changed = 0;
+        long unchanged = 0;
+        for (Map.Entry<Long, Long> entry : fingerprints.entrySet()) {
+            Long storedFingerprint = storedFingerprints.get(entry.getKey());
+            if (storedFingerprint == null) {
+                inserted++;
+            } else if (!storedFingerprint.equals(entry.getValue())) {
+                changed++;
+            } else {
+                unchanged++;
+            }
+        }
+        return new SyncReport(inserted, changed, unchanged, 0);
+    }
+}
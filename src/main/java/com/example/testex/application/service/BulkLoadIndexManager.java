@@ -0,0 +1,48 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.config.BulkLoadProperties;
+import com.example.testex.application.repository.TableMaintenanceRepository;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides when a sync is large enough for bulk writes. The live tables keep their secondary indexes,
+ * because shop readers and the per-batch deletes by offer_id use them during the load; index-free
+ * loading only happens on the staging tables and the blue/green shadow tables, which nothing reads.
+ */
+@Component
+public class BulkLoadIndexManager {
+
+    private static final List<String> BULK_TABLES = List.of("offers", "offer_meta", "offer_params");
+
+    private final TableMaintenanceRepository tableMaintenanceRepository;
+    private final BulkLoadProperties bulkLoadProperties;
+
+    public BulkLoadIndexManager(
+            TableMaintenanceRepository tableMaintenanceRepository,
+            BulkLoadProperties bulkLoadProperties
+    ) {
+        this.tableMaintenanceRepository = tableMaintenanceRepository;
+        this.bulkLoadProperties = bulkLoadProperties;
+    }
+
+    public boolean isEnabled() {
+        return bulkLoadProperties.isEnabled();
+    }
+
+    public long storedOffers() {
+        return tableMaintenanceRepository.estimateRowCount("offers");
+    }
+
+    public boolean shouldEnter(long changedRows, long storedOffers) {
+        return bulkLoadProperties.isEnabled()
+                && changedRows >= bulkLoadProperties.getMinChangedRows()
+                && changedRows >= storedOffers * bulkLoadProperties.getChangedShareThreshold();
+    }
+
+    public void analyze() {
+        for (String tableName : BULK_TABLES) {
+            tableMaintenanceRepository.analyze(tableName);
+        }
+    }
+}
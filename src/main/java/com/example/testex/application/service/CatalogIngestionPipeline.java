@@ -0,0 +1,122 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.config.IngestionProperties;
+import com.example.testex.application.parser.CatalogStreamListener;
+import com.example.testex.application.parser.CatalogXmlParser;
+import com.example.testex.domain.model.OfferBatch;
+import com.example.testex.domain.model.TableData;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the parser on a background thread and hands its tables and offer batches to the caller's
+ * thread through a bounded queue, so parsing overlaps with the writes and at most
+ * {@code queue-capacity} batches are held in memory.
+ */
+@Component
+public class CatalogIngestionPipeline {
+
+    private static final Object END_OF_CATALOG = new Object();
+
+    private final CatalogXmlParser catalogXmlParser;
+    private final IngestionProperties ingestionProperties;
+
+    public CatalogIngestionPipeline(CatalogXmlParser catalogXmlParser, IngestionProperties ingestionProperties) {
+        this.catalogXmlParser = catalogXmlParser;
+        this.ingestionProperties = ingestionProperties;
+    }
+
+    public void run(CatalogStreamListener consumer) {
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(Math.max(1, ingestionProperties.getQueueCapacity()));
+        Thread producer = Thread.ofPlatform()
+                .name("catalog-parser")
+                .daemon()
+                .start(() -> produce(queue));
+
+        boolean completed = false;
+        try {
+            while (true) {
+                Object item = queue.take();
+                if (item == END_OF_CATALOG) {
+                    completed = true;
+                    consumer.onCatalogEnd();
+                    return;
+                }
+                if (item instanceof ProducerFailure failure) {
+                    completed = true;
+                    throw new IllegalStateException("Catalog parsing failed", failure.cause());
+                }
+                if (item instanceof FeedRevision feedRevision) {
+                    consumer.onFeed(feedRevision.revision());
+                } else if (item instanceof TableData tableData) {
+                    consumer.onTable(tableData);
+                } else {
+                    consumer.onOfferBatch((OfferBatch) item);
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for catalog batches", exception);
+        } finally {
+            if (!completed) {
+                producer.interrupt();
+            }
+            joinQuietly(producer);
+        }
+    }
+
+    private void produce(BlockingQueue<Object> queue) {
+        try {
+            catalogXmlParser.stream(Math.max(1, ingestionProperties.getBatchSize()), new CatalogStreamListener() {
+                @Override
+                public void onFeed(String revision) {
+                    put(queue, new FeedRevision(revision));
+                }
+
+                @Override
+                public void onTable(TableData tableData) {
+                    put(queue, tableData);
+                }
+
+                @Override
+                public void onOfferBatch(OfferBatch offerBatch) {
+                    put(queue, offerBatch);
+                }
+            });
+            put(queue, END_OF_CATALOG);
+        } catch (CancellationException exception) {
+            // The consumer gave up and nobody is reading the queue any more.
+        } catch (RuntimeException | Error exception) {
+            try {
+                put(queue, new ProducerFailure(exception));
+            } catch (CancellationException ignored) {
+                // The consumer gave up and nobody is reading the queue any more.
+            }
+        }
+    }
+
+    private void put(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Catalog consumer stopped");
+        }
+    }
+
+    private void joinQuietly(Thread producer) {
+        try {
+            producer.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record FeedRevision(String revision) {
+    }
+
+    private record ProducerFailure(Throwable cause) {
+    }
+}
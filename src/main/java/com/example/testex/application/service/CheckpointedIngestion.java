@@ -0,0 +1,137 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.config.IngestionProperties;
+import com.example.testex.application.parser.CatalogStreamListener;
+import com.example.testex.application.repository.IngestionCheckpointRepository;
+import com.example.testex.domain.model.IngestionRun;
+import com.example.testex.domain.model.OfferBatch;
+import com.example.testex.domain.model.SyncReport;
+import com.example.testex.domain.model.TableData;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams the catalog and commits every offer batch in its own transaction together with a checkpoint row, so a
+ * failed run of the same feed version resumes after its last committed chunk instead of rewriting everything.
+ * Resuming saves only the writes: the feed is fetched again (a spool hit when the server answers 304) and parsed
+ * from the start; committed chunks are skipped only at the write and still stage their offer ids for the removal
+ * of missing offers.
+ * The session is opened with bulk loading disabled, so large syncs in this mode always merge and never take the
+ * bulk path.
+ */
+@Component
+public class CheckpointedIngestion {
+
+    private static final String UNVERSIONED_FEED = "unversioned";
+
+    private final CatalogIngestionPipeline catalogIngestionPipeline;
+    private final OfferBatchWriter offerBatchWriter;
+    private final IngestionCheckpointRepository ingestionCheckpointRepository;
+    private final IngestionProperties ingestionProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public CheckpointedIngestion(
+            CatalogIngestionPipeline catalogIngestionPipeline,
+            OfferBatchWriter offerBatchWriter,
+            IngestionCheckpointRepository ingestionCheckpointRepository,
+            IngestionProperties ingestionProperties,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.catalogIngestionPipeline = catalogIngestionPipeline;
+        this.offerBatchWriter = offerBatchWriter;
+        this.ingestionCheckpointRepository = ingestionCheckpointRepository;
+        this.ingestionProperties = ingestionProperties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public SyncReport run(CatalogStreamListener tableWriter) {
+        CheckpointedRun checkpointedRun = new CheckpointedRun(tableWriter, offerBatchWriter.openSession(false));
+        try {
+            catalogIngestionPipeline.run(checkpointedRun);
+            return transactionTemplate.execute(status -> checkpointedRun.finish());
+        } catch (RuntimeException exception) {
+            checkpointedRun.fail(exception);
+            throw exception;
+        }
+    }
+
+    private final class CheckpointedRun implements CatalogStreamListener {
+
+        private final CatalogStreamListener tableWriter;
+        private final OfferBatchWriter.Session session;
+        private final int chunkSize = Math.max(1, ingestionProperties.getBatchSize());
+        private IngestionRun run;
+        private Map<Integer, SyncReport> committedChunks = Map.of();
+        private int chunkIndex;
+
+        private CheckpointedRun(CatalogStreamListener tableWriter, OfferBatchWriter.Session session) {
+            this.tableWriter = tableWriter;
+            this.session = session;
+        }
+
+        @Override
+        public void onFeed(String revision) {
+            if (revision == null) {
+                run = ingestionCheckpointRepository.startRun(UNVERSIONED_FEED, chunkSize);
+                return;
+            }
+            run = ingestionCheckpointRepository.findResumableRun(revision, chunkSize);
+            if (run == null) {
+                run = ingestionCheckpointRepository.startRun(revision, chunkSize);
+                return;
+            }
+            ingestionCheckpointRepository.updateStatus(run.id(), IngestionRun.Status.RUNNING);
+            committedChunks = ingestionCheckpointRepository.findCommittedChunks(run.id());
+        }
+
+        @Override
+        public void onTable(TableData tableData) {
+            transactionTemplate.executeWithoutResult(status -> tableWriter.onTable(tableData));
+        }
+
+        @Override
+        public void onOfferBatch(OfferBatch offerBatch) {
+            int index = chunkIndex++;
+            SyncReport committedReport = committedChunks.get(index);
+            if (committedReport != null) {
+                session.skip(offerBatch, committedReport);
+                return;
+            }
+            tableWriter.onOfferBatch(offerBatch);
+            transactionTemplate.executeWithoutResult(status -> {
+                SyncReport batchReport = session.write(offerBatch);
+                ingestionCheckpointRepository.commitChunk(
+                        run.id(),
+                        index,
+                        offerBatch.offers().rowCount(),
+                        batchReport
+                );
+            });
+        }
+
+        @Override
+        public void onCatalogEnd() {
+            tableWriter.onCatalogEnd();
+        }
+
+        private SyncReport finish() {
+            SyncReport report = session.finish();
+            if (run != null) {
+                ingestionCheckpointRepository.updateStatus(run.id(), IngestionRun.Status.COMPLETED);
+            }
+            return report;
+        }
+
+        private void fail(RuntimeException exception) {
+            if (run == null) {
+                return;
+            }
+            try {
+                ingestionCheckpointRepository.updateStatus(run.id(), IngestionRun.Status.FAILED);
+            } catch (RuntimeException statusException) {
+                exception.addSuppressed(statusException);
+            }
+        }
+    }
+}
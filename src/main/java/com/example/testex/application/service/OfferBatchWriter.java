@@ -0,0 +1,462 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.config.IngestionProperties;
+import com.example.testex.application.metrics.IngestionMetrics;
+import com.example.testex.application.repository.CategoriesRepository;
+import com.example.testex.application.repository.CurrencyRepository;
+import com.example.testex.application.repository.OfferFingerprintRepository;
+import com.example.testex.application.repository.OfferMetaRepository;
+import com.example.testex.application.repository.OfferStagingRepository;
+import com.example.testex.application.repository.OfferParamsRepository;
+import com.example.testex.application.repository.OffersRepository;
+import com.example.testex.application.repository.VendorRepository;
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.domain.model.ColumnSpec;
+import com.example.testex.domain.model.OfferBatch;
+import com.example.testex.domain.model.OfferMeta;
+import com.example.testex.domain.model.OfferParam;
+import com.example.testex.domain.model.OfferVendor;
+import com.example.testex.domain.model.SyncReport;
+import com.example.testex.domain.model.TableData;
+import com.example.testex.domain.util.OfferFingerprinter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OfferBatchWriter {
+
+    private final CurrencyRepository currencyRepository;
+    private final CategoriesRepository categoriesRepository;
+    private final VendorRepository vendorRepository;
+    private final OffersRepository offersRepository;
+    private final OfferMetaRepository offerMetaRepository;
+    private final OfferParamsRepository offerParamsRepository;
+    private final OfferFingerprintRepository offerFingerprintRepository;
+    private final OfferStagingRepository offerStagingRepository;
+    private final ParallelWriteScheduler parallelWriteScheduler;
+    private final OfferRemover offerRemover;
+    private final BulkLoadIndexManager bulkLoadIndexManager;
+    private final IngestionProperties ingestionProperties;
+    private final IngestionMetrics ingestionMetrics;
+    private final OfferFingerprinter offerFingerprinter;
+
+    public OfferBatchWriter(
+            CurrencyRepository currencyRepository,
+            CategoriesRepository categoriesRepository,
+            VendorRepository vendorRepository,
+            OffersRepository offersRepository,
+            OfferMetaRepository offerMetaRepository,
+            OfferParamsRepository offerParamsRepository,
+            OfferFingerprintRepository offerFingerprintRepository,
+            OfferStagingRepository offerStagingRepository,
+            ParallelWriteScheduler parallelWriteScheduler,
+            OfferRemover offerRemover,
+            BulkLoadIndexManager bulkLoadIndexManager,
+            IngestionProperties ingestionProperties,
+            IngestionMetrics ingestionMetrics
+    ) {
+        this.currencyRepository = currencyRepository;
+        this.categoriesRepository = categoriesRepository;
+        this.vendorRepository = vendorRepository;
+        this.offersRepository = offersRepository;
+        this.offerMetaRepository = offerMetaRepository;
+        this.offerParamsRepository = offerParamsRepository;
+        this.offerFingerprintRepository = offerFingerprintRepository;
+        this.offerStagingRepository = offerStagingRepository;
+        this.parallelWriteScheduler = parallelWriteScheduler;
+        this.offerRemover = offerRemover;
+        this.bulkLoadIndexManager = bulkLoadIndexManager;
+        this.ingestionProperties = ingestionProperties;
+        this.ingestionMetrics = ingestionMetrics;
+        this.offerFingerprinter = new OfferFingerprinter();
+    }
+
+    public Session openSession() {
+        return openSession(true);
+    }
+
+    public Session openSession(boolean bulkLoadAllowed) {
+        return new Session(ingestionProperties.isDeltaSync(), bulkLoadAllowed && bulkLoadIndexManager.isEnabled());
+    }
+
+    public final class Session {
+
+        private final boolean deltaSync;
+        private final boolean bulkLoadAllowed;
+        private final boolean removalEnabled = offerRemover.isEnabled();
+        private boolean feedOfferIdsPrepared;
+        private SyncReport report = SyncReport.empty();
+        private boolean stagingPrepared;
+        private long storedOffers = -1;
+        private long changedRows;
+        private boolean bulk;
+
+        private Session(boolean deltaSync, boolean bulkLoadAllowed) {
+            this.deltaSync = deltaSync;
+            this.bulkLoadAllowed = bulkLoadAllowed;
+        }
+
+        public SyncReport write(OfferBatch offerBatch) {
+            return write(offerBatch, List.of());
+        }
+
+        public SyncReport write(OfferBatch offerBatch, List<TableData> referenceTables) {
+            long fingerprintStarted = System.nanoTime();
+            LinkedHashMap<Long, Long> fingerprints = fingerprint(offerBatch);
+            Map<Long, Long> storedFingerprints = offerFingerprintRepository.findByOfferIds(fingerprints.keySet());
+            ingestionMetrics.recordStage("fingerprint", System.nanoTime() - fingerprintStarted);
+            stageFeedOfferIds(fingerprints.keySet());
+
+            long inserted = 0;
+            long changed = 0;
+            long unchanged = 0;
+            LinkedHashMap<Long, Long> changedFingerprints = new LinkedHashMap<>();
+            for (Map.Entry<Long, Long> entry : fingerprints.entrySet()) {
+                Long storedFingerprint = storedFingerprints.get(entry.getKey());
+                if (storedFingerprint == null) {
+                    inserted++;
+                } else if (!storedFingerprint.equals(entry.getValue())) {
+                    changed++;
+                } else {
+                    unchanged++;
+                    continue;
+                }
+                changedFingerprints.put(entry.getKey(), entry.getValue());
+            }
+
+            changedRows += changedFingerprints.size();
+            if (bulkLoadAllowed && !bulk) {
+                if (storedOffers < 0) {
+                    storedOffers = bulkLoadIndexManager.storedOffers();
+                }
+                bulk = bulkLoadIndexManager.shouldEnter(changedRows, storedOffers);
+            }
+
+            long started = System.nanoTime();
+            OfferBatch toWrite = deltaSync ? retain(offerBatch, changedFingerprints.keySet()) : offerBatch;
+            if (parallelWriteScheduler.parallelism() > 1) {
+                writeStaged(toWrite, referenceTables);
+            } else {
+                for (TableData referenceTable : referenceTables) {
+                    ingestionMetrics.timeWrite(referenceTable.tableName(), referenceTable.rowCount(), referenceTable,
+                            () -> upsertReferenceTable(referenceTable));
+                }
+                ingestionMetrics.timeWrite("vendor", toWrite.offerVendors().size(), toWrite.offerVendors(),
+                        () -> vendorRepository.upsert(toWrite.offerVendors()));
+                Set<Long> offerIds = ingestionMetrics.timeWrite("offers", toWrite.offers().rowCount(),
+                        toWrite.offers(), () -> offersRepository.upsert(toWrite.offers()));
+                ingestionMetrics.timeWrite("offer_meta", toWrite.offerMetas().size(), toWrite.offerMetas(), () -> {
+                    if (bulk) {
+                        offerMetaRepository.bulkReplaceForOffers(offerIds, toWrite.offerMetas());
+                    } else {
+                        offerMetaRepository.replaceForOffers(offerIds, toWrite.offerMetas());
+                    }
+                });
+                List<OfferParam> offerParams = toWrite.offerParams();
+                ingestionMetrics.timeWrite("offer_params", offerParams.size(), offerParams, () -> {
+                    if (bulk) {
+                        offerParamsRepository.bulkReplaceForOffers(offerIds, offerParams);
+                    } else {
+                        offerParamsRepository.replaceForOffers(offerIds, offerParams);
+                    }
+                });
+            }
+            ingestionMetrics.timeWrite("offer_fingerprint", changedFingerprints.size(), changedFingerprints,
+                    () -> offerFingerprintRepository.upsert(changedFingerprints));
+
+            SyncReport batchReport = new SyncReport(inserted, changed, unchanged, 0);
+            report = report.plus(batchReport);
+            recordPhase("write", started);
+            return batchReport;
+        }
+
+        public void skip(OfferBatch offerBatch, SyncReport committedReport) {
+            if (removalEnabled) {
+                Set<Long> offerIds = new HashSet<>();
+                ColumnData ids = offerBatch.offers().column("id");
+                for (int row = 0; ids != null && row < offerBatch.offers().rowCount(); row++) {
+                    if (ids.hasLong(row)) {
+                        offerIds.add(ids.getLong(row));
+                    }
+                }
+                stageFeedOfferIds(offerIds);
+            }
+            report = report.plus(committedReport);
+        }
+
+        private void stageFeedOfferIds(Collection<Long> offerIds) {
+            if (!removalEnabled) {
+                return;
+            }
+            offerStagingRepository.lock();
+            if (!feedOfferIdsPrepared) {
+                offerRemover.clearFeedOfferIds();
+                feedOfferIdsPrepared = true;
+            }
+            ingestionMetrics.timeWrite("offer_ids_staging", offerIds.size(), offerIds,
+                    () -> offerRemover.stageFeedOfferIds(offerIds));
+        }
+
+        private void writeStaged(OfferBatch offerBatch, List<TableData> referenceTables) {
+            offerStagingRepository.lock();
+            long batchId = offerStagingRepository.nextBatchId();
+            if (!stagingPrepared) {
+                offerStagingRepository.deleteBatchesBefore(batchId);
+                stagingPrepared = true;
+            }
+
+            List<ParallelWriteScheduler.WriteTask> tasks = new ArrayList<>();
+            for (TableData referenceTable : referenceTables) {
+                tasks.add(new ParallelWriteScheduler.WriteTask(referenceTable.tableName(), List.of(),
+                        () -> ingestionMetrics.timeWrite(referenceTable.tableName() + "_staging",
+                                referenceTable.rowCount(), referenceTable,
+                                () -> stageReferenceTable(batchId, referenceTable))));
+            }
+            tasks.add(new ParallelWriteScheduler.WriteTask("vendor", List.of(),
+                    () -> ingestionMetrics.timeWrite("vendor_staging", offerBatch.offerVendors().size(),
+                            offerBatch.offerVendors(),
+                            () -> offerStagingRepository.stageVendors(batchId, offerBatch.offerVendors()))));
+            List<OfferPartition> partitions = partition(offerBatch, parallelWriteScheduler.parallelism());
+            for (int index = 0; index < partitions.size(); index++) {
+                OfferPartition partition = partitions.get(index);
+                tasks.add(new ParallelWriteScheduler.WriteTask("offers-" + index, List.of(),
+                        () -> ingestionMetrics.timeWrite("offers_staging", partition.rows().length, null,
+                                () -> offerStagingRepository.stageOffers(batchId, offerBatch.offers(),
+                                        partition.rows()))));
+                tasks.add(new ParallelWriteScheduler.WriteTask("offer-meta-" + index, List.of(),
+                        () -> ingestionMetrics.timeWrite("offer_meta_staging", partition.offerMetas().size(),
+                                partition.offerMetas(),
+                                () -> offerStagingRepository.stageOfferMetas(batchId, partition.offerMetas()))));
+                tasks.add(new ParallelWriteScheduler.WriteTask("offer-params-" + index, List.of(),
+                        () -> ingestionMetrics.timeWrite("offer_params_staging", partition.offerParams().size(),
+                                partition.offerParams(),
+                                () -> offerStagingRepository.stageOfferParams(batchId, partition.offerParams()))));
+            }
+
+            try {
+                long started = System.nanoTime();
+                parallelWriteScheduler.run(tasks);
+                ingestionMetrics.recordStage("stage", System.nanoTime() - started);
+                started = System.nanoTime();
+                offerStagingRepository.publish(batchId, bulk);
+                ingestionMetrics.recordStage("publish", System.nanoTime() - started);
+            } catch (RuntimeException | Error exception) {
+                discardStaged(batchId, exception);
+                throw exception;
+            }
+        }
+
+        private void discardStaged(long batchId, Throwable failure) {
+            try {
+                parallelWriteScheduler.run(List.of(new ParallelWriteScheduler.WriteTask("discard-staging", List.of(),
+                        () -> offerStagingRepository.discard(batchId))));
+            } catch (RuntimeException | Error exception) {
+                failure.addSuppressed(exception);
+            }
+        }
+
+        public SyncReport finish() {
+            if (bulk) {
+                long started = System.nanoTime();
+                bulkLoadIndexManager.analyze();
+                recordPhase("analyze", started);
+            }
+
+            long started = System.nanoTime();
+            stageFeedOfferIds(List.of());
+            long removed = offerRemover.removeMissing();
+            report = report.plus(new SyncReport(0, 0, 0, removed));
+            recordPhase("remove-missing", started);
+            return report;
+        }
+
+        private void recordPhase(String phase, long started) {
+            long elapsed = System.nanoTime() - started;
+            report = report.withPhaseTime(phase, Duration.ofNanos(elapsed));
+            ingestionMetrics.recordStage(phase, elapsed);
+        }
+    }
+
+    private void upsertReferenceTable(TableData tableData) {
+        switch (tableData.tableName()) {
+            case "currency" -> currencyRepository.upsert(tableData);
+            case "categories" -> categoriesRepository.upsert(tableData);
+            default -> throw new IllegalArgumentException("Unsupported reference table: " + tableData.tableName());
+        }
+    }
+
+    private long stageReferenceTable(long batchId, TableData tableData) {
+        return switch (tableData.tableName()) {
+            case "currency" -> offerStagingRepository.stageCurrencies(batchId, tableData);
+            case "categories" -> offerStagingRepository.stageCategories(batchId, tableData);
+            default -> throw new IllegalArgumentException("Unsupported reference table: " + tableData.tableName());
+        };
+    }
+
+    public LinkedHashMap<Long, Long> fingerprint(OfferBatch offerBatch) {
+        Map<Long, OfferVendor> vendorsByOffer = new HashMap<>();
+        for (OfferVendor offerVendor : offerBatch.offerVendors()) {
+            vendorsByOffer.put(offerVendor.offerId(), offerVendor);
+        }
+        Map<Long, OfferMeta> metasByOffer = new HashMap<>();
+        for (OfferMeta offerMeta : offerBatch.offerMetas()) {
+            metasByOffer.put(offerMeta.offerId(), offerMeta);
+        }
+        Map<Long, List<OfferParam>> paramsByOffer = new HashMap<>();
+        for (OfferParam offerParam : offerBatch.offerParams()) {
+            paramsByOffer.computeIfAbsent(offerParam.offerId(), key -> new ArrayList<>()).add(offerParam);
+        }
+
+        TableData offers = offerBatch.offers();
+        List<ColumnSpec> columns = new ArrayList<>(offers.columns().values());
+        columns.sort(Comparator.comparing(ColumnSpec::columnName));
+        ColumnData[] columnData = new ColumnData[columns.size()];
+        for (int index = 0; index < columnData.length; index++) {
+            columnData[index] = offers.column(columns.get(index).columnName());
+        }
+
+        LinkedHashMap<Long, Long> fingerprints = new LinkedHashMap<>();
+        ColumnData ids = offers.column("id");
+        for (int row = 0; row < offers.rowCount(); row++) {
+            if (ids == null || !ids.hasLong(row)) {
+                continue;
+            }
+            long offerId = ids.getLong(row);
+            fingerprints.put(offerId, offerFingerprinter.fingerprint(
+                    columns,
+                    columnData,
+                    row,
+                    vendorsByOffer.get(offerId),
+                    metasByOffer.get(offerId),
+                    paramsByOffer.getOrDefault(offerId, List.of())
+            ));
+        }
+        return fingerprints;
+    }
+
+    private List<OfferPartition> partition(OfferBatch offerBatch, int partitionCount) {
+        TableData offers = offerBatch.offers();
+        ColumnData ids = offers.column("id");
+        LinkedHashMap<Long, Integer> lastRowById = new LinkedHashMap<>();
+        for (int row = 0; ids != null && row < offers.rowCount(); row++) {
+            if (ids.hasLong(row)) {
+                lastRowById.put(ids.getLong(row), row);
+            }
+        }
+
+        long[] sortedIds = new long[lastRowById.size()];
+        int next = 0;
+        for (Long offerId : lastRowById.keySet()) {
+            sortedIds[next++] = offerId;
+        }
+        Arrays.sort(sortedIds);
+        int count = Math.max(1, Math.min(partitionCount, sortedIds.length));
+        long[] upperBounds = new long[count];
+        for (int index = 0; index < count; index++) {
+            upperBounds[index] = sortedIds.length == 0
+                    ? Long.MAX_VALUE
+                    : sortedIds[(int) ((long) (index + 1) * sortedIds.length / count) - 1];
+        }
+
+        int[] rowCounts = new int[count];
+        int[] partitionByRow = new int[lastRowById.size()];
+        next = 0;
+        for (Long offerId : lastRowById.keySet()) {
+            int index = partitionOf(upperBounds, offerId);
+            partitionByRow[next++] = index;
+            rowCounts[index]++;
+        }
+        int[][] rows = new int[count][];
+        for (int index = 0; index < count; index++) {
+            rows[index] = new int[rowCounts[index]];
+            rowCounts[index] = 0;
+        }
+        next = 0;
+        for (Integer row : lastRowById.values()) {
+            int index = partitionByRow[next++];
+            rows[index][rowCounts[index]++] = row;
+        }
+
+        List<List<OfferMeta>> offerMetas = new ArrayList<>(count);
+        List<List<OfferParam>> offerParams = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            offerMetas.add(new ArrayList<>());
+            offerParams.add(new ArrayList<>());
+        }
+        for (OfferMeta offerMeta : offerBatch.offerMetas()) {
+            if (lastRowById.containsKey(offerMeta.offerId())) {
+                offerMetas.get(partitionOf(upperBounds, offerMeta.offerId())).add(offerMeta);
+            }
+        }
+        for (OfferParam offerParam : offerBatch.offerParams()) {
+            if (lastRowById.containsKey(offerParam.offerId())) {
+                offerParams.get(partitionOf(upperBounds, offerParam.offerId())).add(offerParam);
+            }
+        }
+
+        List<OfferPartition> partitions = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            partitions.add(new OfferPartition(rows[index], offerMetas.get(index), offerParams.get(index)));
+        }
+        return partitions;
+    }
+
+    private int partitionOf(long[] upperBounds, long offerId) {
+        int index = Arrays.binarySearch(upperBounds, offerId);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private OfferBatch retain(OfferBatch offerBatch, Set<Long> offerIds) {
+        TableData offers = offerBatch.offers();
+        ColumnData ids = offers.column("id");
+        int[] rows = new int[offers.rowCount()];
+        int retainedRows = 0;
+        for (int row = 0; row < offers.rowCount(); row++) {
+            if (ids != null && ids.hasLong(row) && offerIds.contains(ids.getLong(row))) {
+                rows[retainedRows++] = row;
+            }
+        }
+        List<OfferVendor> offerVendors = new ArrayList<>();
+        for (OfferVendor offerVendor : offerBatch.offerVendors()) {
+            if (offerIds.contains(offerVendor.offerId())) {
+                offerVendors.add(offerVendor);
+            }
+        }
+        List<OfferMeta> offerMetas = new ArrayList<>();
+        for (OfferMeta offerMeta : offerBatch.offerMetas()) {
+            if (offerIds.contains(offerMeta.offerId())) {
+                offerMetas.add(offerMeta);
+            }
+        }
+        List<OfferParam> offerParams = new ArrayList<>();
+        for (OfferParam offerParam : offerBatch.offerParams()) {
+            if (offerIds.contains(offerParam.offerId())) {
+                offerParams.add(offerParam);
+            }
+        }
+
+        return new OfferBatch(
+                offers.selectRows(Arrays.copyOf(rows, retainedRows)),
+                offerVendors,
+                offerMetas,
+                offerParams
+        );
+    }
+
+    private record OfferPartition(
+            int[] rows,
+            List<OfferMeta> offerMetas,
+            List<OfferParam> offerParams
+    ) {
+    }
+}
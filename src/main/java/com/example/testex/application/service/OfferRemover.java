@@ -0,0 +1,91 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.config.IngestionProperties;
+import com.example.testex.application.config.OfferRemovalProperties;
+import com.example.testex.application.repository.OfferRemovalRepository;
+import java.util.Collection;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OfferRemover {
+
+    private static final Logger log = LoggerFactory.getLogger(OfferRemover.class);
+
+    private final OfferRemovalRepository offerRemovalRepository;
+    private final OfferRemovalProperties offerRemovalProperties;
+    private final IngestionProperties ingestionProperties;
+
+    public OfferRemover(
+            OfferRemovalRepository offerRemovalRepository,
+            OfferRemovalProperties offerRemovalProperties,
+            IngestionProperties ingestionProperties
+    ) {
+        this.offerRemovalRepository = offerRemovalRepository;
+        this.offerRemovalProperties = offerRemovalProperties;
+        this.ingestionProperties = ingestionProperties;
+    }
+
+    /**
+     * Whether the feed offer ids have to be staged: for removal, or to report what delta sync leaves behind
+     * when removal is off.
+     */
+    public boolean isEnabled() {
+        return offerRemovalProperties.getMode() != OfferRemovalProperties.Mode.NONE
+                || ingestionProperties.isDeltaSync();
+    }
+
+    public void clearFeedOfferIds() {
+        offerRemovalRepository.clearFeedOfferIds();
+    }
+
+    public void stageFeedOfferIds(Collection<Long> feedOfferIds) {
+        offerRemovalRepository.stageFeedOfferIds(feedOfferIds);
+    }
+
+    public long removeMissing() {
+        OfferRemovalProperties.Mode mode = offerRemovalProperties.getMode();
+        if (mode == OfferRemovalProperties.Mode.NONE) {
+            if (ingestionProperties.isDeltaSync()) {
+                long missing = offerRemovalRepository.countMissingOffers();
+                if (missing > 0) {
+                    log.warn("{} stored offers are missing from the feed and were kept because offer-removal.mode "
+                            + "is none", missing);
+                }
+            }
+            return 0;
+        }
+
+        long existing = offerRemovalRepository.countOffers();
+        long missing = mode == OfferRemovalProperties.Mode.DELETE
+                ? offerRemovalRepository.countMissingOffers()
+                : offerRemovalRepository.countAvailableMissingOffers();
+        checkRemovedRatio(missing, existing, offerRemovalRepository::countFeedOfferIds);
+
+        int batchSize = Math.max(1, offerRemovalProperties.getBatchSize());
+        long removed = 0;
+        while (true) {
+            int batch = mode == OfferRemovalProperties.Mode.DELETE
+                    ? offerRemovalRepository.deleteMissingOffers(batchSize)
+                    : offerRemovalRepository.markMissingOffersUnavailable(batchSize);
+            removed += batch;
+            if (batch < batchSize) {
+                return removed;
+            }
+        }
+    }
+
+    public void checkRemovedRatio(long missing, LongSupplier feedOffers) {
+        checkRemovedRatio(missing, offerRemovalRepository.countOffers(), feedOffers);
+    }
+
+    private void checkRemovedRatio(long missing, long existing, LongSupplier feedOffers) {
+        if (missing > 0 && missing > existing * offerRemovalProperties.getMaxRemovedRatio()) {
+            throw new IllegalStateException("Feed with " + feedOffers.getAsLong() + " offers would remove " + missing
+                    + " of " + existing + " stored offers, above the max-removed-ratio of "
+                    + offerRemovalProperties.getMaxRemovedRatio() + ". Is the feed truncated?");
+        }
+    }
+}
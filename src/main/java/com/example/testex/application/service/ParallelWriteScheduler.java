@@ -0,0 +1,78 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.config.RepositoryWriteProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a dependency graph of write tasks on a fixed pool of {@code app.repository.parallelism} threads. Each task
+ * runs outside the caller's transaction on its own pooled connection and commits on its own, so tasks should only
+ * write staging rows under their batch key; the publish in the caller's transaction is the only atomic step, and
+ * the caller discards the batch's staged rows when a task or the publish fails.
+ */
+@Component
+public class ParallelWriteScheduler {
+
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public ParallelWriteScheduler(RepositoryWriteProperties repositoryWriteProperties) {
+        this.parallelism = Math.max(1, repositoryWriteProperties.getParallelism());
+        this.executor = Executors.newFixedThreadPool(
+                parallelism,
+                Thread.ofPlatform().name("repository-writer-", 0).daemon().factory()
+        );
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    public void run(List<WriteTask> tasks) {
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (WriteTask task : tasks) {
+            List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+            for (String dependency : task.dependsOn()) {
+                CompletableFuture<Void> future = futures.get(dependency);
+                if (future == null) {
+                    throw new IllegalArgumentException("Task " + task.name()
+                            + " depends on unknown or later task " + dependency);
+                }
+                dependencies.add(future);
+            }
+            futures.put(task.name(), CompletableFuture
+                    .allOf(dependencies.toArray(CompletableFuture[]::new))
+                    .thenRunAsync(task.action(), executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Parallel write failed", cause);
+        }
+    }
+
+    public record WriteTask(
+            String name,
+            List<String> dependsOn,
+            Runnable action
+    ) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.repository.SchemaMetadataRepository;
+import com.example.testex.domain.model.SchemaSnapshot;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SchemaSnapshotProvider {
+
+    private final SchemaMetadataRepository schemaMetadataRepository;
+    private final String schemaName;
+    private final AtomicReference<SchemaSnapshot> snapshot = new AtomicReference<>();
+
+    public SchemaSnapshotProvider(
+            SchemaMetadataRepository schemaMetadataRepository,
+            @Value("${app.schema}") String schemaName
+    ) {
+        this.schemaMetadataRepository = schemaMetadataRepository;
+        this.schemaName = schemaName;
+    }
+
+    public SchemaSnapshot get() {
+        SchemaSnapshot current = snapshot.get();
+        if (current == null) {
+            current = schemaMetadataRepository.loadSnapshot(schemaName);
+            if (!snapshot.compareAndSet(null, current)) {
+                SchemaSnapshot concurrent = snapshot.get();
+                return concurrent == null ? current : concurrent;
+            }
+        }
+        return current;
+    }
+
+    public void invalidate() {
+        snapshot.set(null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.config.DaemonProperties;
+import com.example.testex.domain.service.XmlCatalogService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Runs {@link XmlCatalogService#update()} on a cron or fixed-delay schedule inside the running
+ * application, so the connection pool, the warmed-up parser and the cached catalog are reused between
+ * syncs. Syncs run on a single scheduler thread and never overlap: a fixed delay is counted from the
+ * end of the previous sync, and cron fire times that pass while a sync is still running are skipped.
+ */
+@Component
+public class SyncDaemon implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncDaemon.class);
+
+    private final XmlCatalogService xmlCatalogService;
+    private final DaemonProperties daemonProperties;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile ThreadPoolTaskScheduler scheduler;
+
+    public SyncDaemon(XmlCatalogService xmlCatalogService, DaemonProperties daemonProperties) {
+        this.xmlCatalogService = xmlCatalogService;
+        this.daemonProperties = daemonProperties;
+    }
+
+    public void run(Runnable afterSync) {
+        ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(1);
+        taskScheduler.setThreadNamePrefix("sync-daemon-");
+        taskScheduler.setWaitForTasksToCompleteOnShutdown(true);
+        taskScheduler.setAwaitTerminationMillis(daemonProperties.getShutdownTimeout().toMillis());
+        taskScheduler.initialize();
+        scheduler = taskScheduler;
+
+        Runnable task = () -> sync(afterSync);
+        String cron = daemonProperties.getCron();
+        if (StringUtils.hasText(cron)) {
+            taskScheduler.schedule(task, new CronTrigger(cron));
+            log.info("Sync daemon started with cron '{}'", cron);
+        } else {
+            Duration fixedDelay = daemonProperties.getFixedDelay();
+            taskScheduler.scheduleWithFixedDelay(task, Instant.now().plus(daemonProperties.getInitialDelay()),
+                    fixedDelay);
+            log.info("Sync daemon started with a fixed delay of {}", fixedDelay);
+        }
+
+        try {
+            stopped.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            taskScheduler.shutdown();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        stopped.countDown();
+        ThreadPoolTaskScheduler taskScheduler = scheduler;
+        if (taskScheduler != null) {
+            taskScheduler.shutdown();
+        }
+    }
+
+    private void sync(Runnable afterSync) {
+        long started = System.nanoTime();
+        try {
+            xmlCatalogService.revalidateCatalog();
+            xmlCatalogService.update();
+            log.info("Scheduled sync finished in {} ms", Duration.ofNanos(System.nanoTime() - started).toMillis());
+            afterSync.run();
+        } catch (RuntimeException exception) {
+            log.error("Scheduled sync failed after {} ms, next sync stays scheduled",
+                    Duration.ofNanos(System.nanoTime() - started).toMillis(), exception);
+        }
+    }
+}
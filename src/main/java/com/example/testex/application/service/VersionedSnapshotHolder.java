@@ -0,0 +1,158 @@
+package com.example.testex.application.service;
+
+import com.example.testex.application.config.CatalogCacheProperties;
+import com.example.testex.application.metrics.IngestionMetrics;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the latest loaded value together with its version. Loads run on a background thread, at
+ * most one at a time, and the new snapshot replaces the old one atomically; readers only wait when
+ * nothing has been loaded yet or when a stale value must not be served, and a stale value is served
+ * for at most max-stale past its ttl. After a failed load background refreshes back off for
+ * refresh-ahead. The loader receives the current value and may return it unchanged to keep the
+ * version and only renew its age.
+ */
+public class VersionedSnapshotHolder<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionedSnapshotHolder.class);
+
+    private final String name;
+    private final UnaryOperator<T> loader;
+    private final CatalogCacheProperties properties;
+    private final IngestionMetrics ingestionMetrics;
+    private final Clock clock;
+    private final Executor executor;
+    private final AtomicReference<Snapshot<T>> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Snapshot<T>>> inFlight = new AtomicReference<>();
+    private final AtomicReference<Instant> lastFailure = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public VersionedSnapshotHolder(
+            String name,
+            UnaryOperator<T> loader,
+            CatalogCacheProperties properties,
+            IngestionMetrics ingestionMetrics
+    ) {
+        this(name, loader, properties, ingestionMetrics, Clock.systemUTC(),
+                command -> Thread.ofPlatform().name(name + "-refresh").daemon().start(command));
+    }
+
+    VersionedSnapshotHolder(
+            String name,
+            UnaryOperator<T> loader,
+            CatalogCacheProperties properties,
+            IngestionMetrics ingestionMetrics,
+            Clock clock,
+            Executor executor
+    ) {
+        this.name = name;
+        this.loader = loader;
+        this.properties = properties;
+        this.ingestionMetrics = ingestionMetrics;
+        this.clock = clock;
+        this.executor = executor;
+    }
+
+    public T get() {
+        return snapshot().value();
+    }
+
+    public Snapshot<T> snapshot() {
+        Snapshot<T> snapshot = current.get();
+        if (snapshot == null) {
+            ingestionMetrics.recordCacheLookup(name, "miss");
+            return await(refresh());
+        }
+
+        Instant now = clock.instant();
+        Duration age = Duration.between(snapshot.loadedAt(), now);
+        Duration ttl = properties.getTtl();
+        if (age.compareTo(ttl) >= 0
+                && (!properties.isServeStale() || age.compareTo(ttl.plus(properties.getMaxStale())) >= 0)) {
+            ingestionMetrics.recordCacheLookup(name, "expired");
+            return await(refresh());
+        }
+        if (age.compareTo(ttl.minus(properties.getRefreshAhead())) >= 0) {
+            ingestionMetrics.recordCacheLookup(name, age.compareTo(ttl) >= 0 ? "stale" : "refresh-ahead");
+            Instant failedAt = lastFailure.get();
+            if (failedAt == null || !now.isBefore(failedAt.plus(properties.getRefreshAhead()))) {
+                refresh();
+            }
+        } else {
+            ingestionMetrics.recordCacheLookup(name, "hit");
+        }
+        return snapshot;
+    }
+
+    public CompletableFuture<Snapshot<T>> refresh() {
+        while (true) {
+            CompletableFuture<Snapshot<T>> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<Snapshot<T>> future = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, future)) {
+                executor.execute(() -> load(future));
+                return future;
+            }
+        }
+    }
+
+    public void revalidate() {
+        if (current.get() != null) {
+            await(refresh());
+        }
+    }
+
+    private void load(CompletableFuture<Snapshot<T>> future) {
+        try {
+            long started = System.nanoTime();
+            Snapshot<T> previous = current.get();
+            T value = loader.apply(previous == null ? null : previous.value());
+            ingestionMetrics.recordStage("load-" + name, System.nanoTime() - started);
+            Snapshot<T> snapshot = previous != null && previous.value() == value
+                    ? new Snapshot<>(previous.version(), value, clock.instant())
+                    : new Snapshot<>(versions.incrementAndGet(), value, clock.instant());
+            current.set(snapshot);
+            lastFailure.set(null);
+            inFlight.set(null);
+            future.complete(snapshot);
+        } catch (RuntimeException | Error exception) {
+            lastFailure.set(clock.instant());
+            inFlight.set(null);
+            if (current.get() != null) {
+                log.warn("Background refresh of {} failed, keeping version {}", name, current.get().version(),
+                        exception);
+            }
+            future.completeExceptionally(exception);
+        }
+    }
+
+    private Snapshot<T> await(CompletableFuture<Snapshot<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw exception;
+        }
+    }
+
+    public record Snapshot<T>(
+            long version,
+            T value,
+            Instant loadedAt
+    ) {
+    }
+}
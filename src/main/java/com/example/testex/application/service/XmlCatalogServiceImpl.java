@@ -1,21 +1,23 @@
 package com.example.testex.application.service;
 
+import com.example.testex.application.config.CatalogCacheProperties;
+import com.example.testex.application.config.IngestionProperties;
+import com.example.testex.application.metrics.IngestionMetrics;
+import com.example.testex.application.parser.CatalogStreamListener;
 import com.example.testex.application.parser.CatalogXmlParser;
 import com.example.testex.application.repository.CategoriesRepository;
 import com.example.testex.application.repository.CurrencyRepository;
-import com.example.testex.application.repository.OfferMetaRepository;
-import com.example.testex.application.repository.OfferParamsRepository;
-import com.example.testex.application.repository.OffersRepository;
-import com.example.testex.application.repository.VendorRepository;
 import com.example.testex.domain.exception.SchemaChangeNotAllowedException;
 import com.example.testex.domain.model.ColumnSpec;
+import com.example.testex.domain.model.ColumnStats;
 import com.example.testex.domain.model.ColumnType;
+import com.example.testex.domain.model.OfferBatch;
 import com.example.testex.domain.model.ParsedCatalog;
+import com.example.testex.domain.model.SchemaSnapshot;
+import com.example.testex.domain.model.SyncReport;
 import com.example.testex.domain.model.TableData;
 import com.example.testex.domain.service.XmlCatalogService;
 import com.example.testex.domain.util.ColumnNameNormalizer;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -24,95 +26,173 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import org.jooq.DSLContext;
-import org.jooq.Field;
-import org.jooq.Record2;
-import org.jooq.Result;
 import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class XmlCatalogServiceImpl implements XmlCatalogService {
 
-    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+    private static final List<String> OFFER_REFERENCE_TABLES = List.of("currency", "categories");
 
-    private final CatalogXmlParser catalogXmlParser;
+    private final CatalogIngestionPipeline catalogIngestionPipeline;
+    private final IngestionProperties ingestionProperties;
     private final DSLContext dslContext;
     private final String schemaName;
     private final CurrencyRepository currencyRepository;
     private final CategoriesRepository categoriesRepository;
-    private final VendorRepository vendorRepository;
-    private final OffersRepository offersRepository;
-    private final OfferMetaRepository offerMetaRepository;
-    private final OfferParamsRepository offerParamsRepository;
+    private final OfferBatchWriter offerBatchWriter;
+    private final BlueGreenReloader blueGreenReloader;
+    private final CheckpointedIngestion checkpointedIngestion;
+    private final TransactionTemplate transactionTemplate;
+    private final SchemaSnapshotProvider schemaSnapshotProvider;
+    private final IngestionMetrics ingestionMetrics;
     private final ColumnNameNormalizer columnNameNormalizer;
+    private final VersionedSnapshotHolder<ParsedCatalog> catalogSnapshot;
+    private final Map<String, VersionedSnapshotHolder<TableData>> sectionSnapshots;
 
-    private volatile ParsedCatalog cachedCatalog;
-    private volatile Instant loadedAt = Instant.EPOCH;
+    private volatile SyncReport lastSyncReport = SyncReport.empty();
 
     public XmlCatalogServiceImpl(
             CatalogXmlParser catalogXmlParser,
+            CatalogIngestionPipeline catalogIngestionPipeline,
+            IngestionProperties ingestionProperties,
+            CatalogCacheProperties catalogCacheProperties,
             DSLContext dslContext,
             @Value("${app.schema}") String schemaName,
             CurrencyRepository currencyRepository,
             CategoriesRepository categoriesRepository,
-            VendorRepository vendorRepository,
-            OffersRepository offersRepository,
-            OfferMetaRepository offerMetaRepository,
-            OfferParamsRepository offerParamsRepository
+            OfferBatchWriter offerBatchWriter,
+            BlueGreenReloader blueGreenReloader,
+            CheckpointedIngestion checkpointedIngestion,
+            TransactionTemplate transactionTemplate,
+            SchemaSnapshotProvider schemaSnapshotProvider,
+            IngestionMetrics ingestionMetrics
     ) {
-        this.catalogXmlParser = catalogXmlParser;
+        this.catalogIngestionPipeline = catalogIngestionPipeline;
+        this.ingestionProperties = ingestionProperties;
         this.dslContext = dslContext;
         this.schemaName = schemaName;
         this.currencyRepository = currencyRepository;
         this.categoriesRepository = categoriesRepository;
-        this.vendorRepository = vendorRepository;
-        this.offersRepository = offersRepository;
-        this.offerMetaRepository = offerMetaRepository;
-        this.offerParamsRepository = offerParamsRepository;
+        this.offerBatchWriter = offerBatchWriter;
+        this.blueGreenReloader = blueGreenReloader;
+        this.checkpointedIngestion = checkpointedIngestion;
+        this.transactionTemplate = transactionTemplate;
+        this.schemaSnapshotProvider = schemaSnapshotProvider;
+        this.ingestionMetrics = ingestionMetrics;
         this.columnNameNormalizer = new ColumnNameNormalizer();
+        this.catalogSnapshot = new VersionedSnapshotHolder<>(
+                "catalog",
+                catalogXmlParser.catalogLoader(),
+                catalogCacheProperties,
+                ingestionMetrics
+        );
+        this.sectionSnapshots = Map.of(
+                "currency", new VersionedSnapshotHolder<>(
+                        "currency",
+                        catalogXmlParser.tableLoader("currency"),
+                        catalogCacheProperties,
+                        ingestionMetrics
+                ),
+                "categories", new VersionedSnapshotHolder<>(
+                        "categories",
+                        catalogXmlParser.tableLoader("categories"),
+                        catalogCacheProperties,
+                        ingestionMetrics
+                )
+        );
     }
 
     @Override
     public ArrayList<String> getTableNames() {
-        return new ArrayList<>(loadCatalog().tableNames());
+        return new ArrayList<>(CatalogXmlParser.TABLE_NAMES);
     }
 
     @Override
     public String getTableDDL(String tableName) {
-        TableData tableData = getTableData(tableName);
+        return renderTableDdl(getTableData(tableName));
+    }
 
-        List<String> elements = new ArrayList<>();
-        for (String columnName : tableData.columnNames()) {
-            ColumnSpec columnSpec = tableData.columns().get(columnName);
-            elements.add(quote(columnName) + " " + columnSpec.columnType().ddlType());
+    @Override
+    public void update() {
+        schemaSnapshotProvider.invalidate();
+        if (isCheckpointed()) {
+            lastSyncReport = updateCheckpointed();
+            return;
         }
+        lastSyncReport = transactionTemplate.execute(status -> {
+            if (isStreaming()) {
+                return updateStreaming();
+            }
+            ParsedCatalog parsedCatalog = loadCatalog();
+            boolean withOffers = parsedCatalog.tableNames().contains("offers");
+            SyncReport syncReport = SyncReport.empty();
+            for (String tableName : parsedCatalog.tableNames()) {
+                if (withOffers && OFFER_REFERENCE_TABLES.contains(tableName)) {
+                    continue;
+                }
+                syncReport = syncReport.plus(updateSingleTable(parsedCatalog, tableName));
+            }
+            return syncReport;
+        });
+    }
 
-        if (tableData.idColumn() != null && tableData.columns().containsKey(tableData.idColumn())) {
-            elements.add("CONSTRAINT " + quote(tableData.tableName() + "_pkey")
-                    + " PRIMARY KEY (" + quote(tableData.idColumn()) + ")");
+    @Override
+    public void update(String tableName) {
+        schemaSnapshotProvider.invalidate();
+        String normalizedTableName = normalizeTableName(tableName);
+        if (isCheckpointed() && "offers".equals(normalizedTableName)) {
+            lastSyncReport = updateCheckpointed();
+            return;
         }
-
-        String joined = String.join(",\n    ", elements);
-        return "CREATE TABLE IF NOT EXISTS " + qualifiedTable(tableData.tableName()) + " (\n    "
-                + joined + "\n);";
+        lastSyncReport = transactionTemplate.execute(status -> {
+            if (sectionSnapshots.containsKey(normalizedTableName)) {
+                updateReferenceTable(getTableData(normalizedTableName));
+                return SyncReport.empty();
+            }
+            if (isStreaming() && "offers".equals(normalizedTableName)) {
+                return updateStreaming();
+            }
+            return updateSingleTable(loadCatalog(), tableName);
+        });
     }
 
     @Override
-    @Transactional
-    public void update() {
+    public void reload() {
+        schemaSnapshotProvider.invalidate();
         ParsedCatalog parsedCatalog = loadCatalog();
-        for (String tableName : parsedCatalog.tableNames()) {
-            updateSingleTable(parsedCatalog, tableName);
+        TableData offersTable = getTableData(parsedCatalog, "offers");
+        transactionTemplate.executeWithoutResult(status -> {
+            updateReferenceTable(getTableData(parsedCatalog, "currency"));
+            updateReferenceTable(getTableData(parsedCatalog, "categories"));
+            validateSchema(offersTable);
+        });
+        lastSyncReport = blueGreenReloader.reload(new OfferBatch(
+                offersTable,
+                parsedCatalog.offerVendors(),
+                parsedCatalog.offerMetas(),
+                parsedCatalog.offerParams()
+        ));
+    }
+
+    @Override
+    public void revalidateCatalog() {
+        catalogSnapshot.revalidate();
+        for (VersionedSnapshotHolder<TableData> sectionSnapshot : sectionSnapshots.values()) {
+            sectionSnapshot.revalidate();
         }
     }
 
     @Override
-    @Transactional
-    public void update(String tableName) {
-        ParsedCatalog parsedCatalog = loadCatalog();
-        updateSingleTable(parsedCatalog, tableName);
+    public SyncReport getLastSyncReport() {
+        return lastSyncReport;
+    }
+
+    @Override
+    public ParsedCatalog getParsedCatalog() {
+        return loadCatalog();
     }
 
     @Override
@@ -128,35 +208,46 @@ public class XmlCatalogServiceImpl implements XmlCatalogService {
             return false;
         }
 
-        Set<String> seen = new HashSet<>();
-        for (Map<String, String> row : tableData.rows()) {
-            String value = row.get(resolvedColumn);
-            if (value == null || value.isBlank()) {
-                return false;
-            }
-            if (!seen.add(value)) {
-                return false;
-            }
+        ColumnStats columnStats = tableData.columnStats(resolvedColumn);
+        return columnStats.rowCount() > 0 && columnStats.nullCount() == 0 && columnStats.unique();
+    }
+
+    @Override
+    public LinkedHashMap<String, ColumnStats> getColumnStats(String tableName) {
+        TableData tableData = getTableData(tableName);
+        LinkedHashMap<String, ColumnStats> columnStats = new LinkedHashMap<>();
+        for (String columnName : tableData.columnNames()) {
+            columnStats.put(columnName, tableData.columnStats(columnName));
         }
-        return !tableData.rows().isEmpty();
+        return columnStats;
     }
 
     @Override
     public String getDDLChange(String tableName) {
-        TableData tableData = getTableData(tableName);
-        if (tableExists(tableData.tableName())) {
-            return getTableDDL(tableData.tableName());
+        return ddlChange(getTableData(tableName));
+    }
+
+    private String ddlChange(TableData tableData) {
+        SchemaSnapshot.Table dbTable = schemaSnapshotProvider.get().table(tableData.tableName());
+        if (dbTable == null) {
+            return renderTableDdl(tableData);
         }
+        checkRemovedColumns(dbTable, tableData.columns().keySet());
+        return columnChanges(dbTable, tableData);
+    }
 
-        Map<String, String> dbColumns = loadDbColumns(tableData.tableName());
-        for (String dbColumn : dbColumns.keySet()) {
-            if (!tableData.columns().containsKey(dbColumn)) {
+    private void checkRemovedColumns(SchemaSnapshot.Table dbTable, Set<String> xmlColumns) {
+        for (String dbColumn : dbTable.columnTypes().keySet()) {
+            if (!xmlColumns.contains(dbColumn)) {
                 throw new SchemaChangeNotAllowedException(
                         "Table structure changed: column removed in XML: " + dbColumn
                 );
             }
         }
+    }
 
+    private String columnChanges(SchemaSnapshot.Table dbTable, TableData tableData) {
+        Map<String, String> dbColumns = dbTable.columnTypes();
         List<String> alters = new ArrayList<>();
         for (String expectedColumnName : tableData.columnNames()) {
             ColumnType expectedType = tableData.columns().get(expectedColumnName).columnType();
@@ -176,60 +267,145 @@ public class XmlCatalogServiceImpl implements XmlCatalogService {
         return String.join("\n", alters);
     }
 
-    private void updateSingleTable(ParsedCatalog parsedCatalog, String tableName) {
+    private String renderTableDdl(TableData tableData) {
+        List<String> elements = new ArrayList<>();
+        for (String columnName : tableData.columnNames()) {
+            ColumnSpec columnSpec = tableData.columns().get(columnName);
+            elements.add(quote(columnName) + " " + columnSpec.columnType().ddlType());
+        }
+
+        if (tableData.idColumn() != null && tableData.columns().containsKey(tableData.idColumn())) {
+            elements.add("CONSTRAINT " + quote(tableData.tableName() + "_pkey")
+                    + " PRIMARY KEY (" + quote(tableData.idColumn()) + ")");
+        }
+
+        String joined = String.join(",\n    ", elements);
+        return "CREATE TABLE IF NOT EXISTS " + qualifiedTable(tableData.tableName()) + " (\n    "
+                + joined + "\n);";
+    }
+
+    private SyncReport updateSingleTable(ParsedCatalog parsedCatalog, String tableName) {
         TableData tableData = getTableData(parsedCatalog, tableName);
+        if (!"offers".equals(tableData.tableName())) {
+            updateReferenceTable(tableData);
+            return SyncReport.empty();
+        }
+        validateSchema(tableData);
+        return updateOffersWithRelatedTables(parsedCatalog, tableData);
+    }
+
+    private void updateReferenceTable(TableData tableData) {
+        validateSchema(tableData);
+        switch (tableData.tableName()) {
+            case "currency" -> ingestionMetrics.timeWrite("currency", tableData.rowCount(), tableData,
+                    () -> currencyRepository.upsert(tableData));
+            case "categories" -> ingestionMetrics.timeWrite("categories", tableData.rowCount(), tableData,
+                    () -> categoriesRepository.upsert(tableData));
+            default -> throw new IllegalArgumentException("Unsupported table update: " + tableData.tableName());
+        }
+    }
 
-        if (tableExists(tableData.tableName())) {
-            throw new IllegalStateException("Table " + tableData.tableName()
-                    + " is missing. Run Flyway migrations first.");
+    private SyncReport updateOffersWithRelatedTables(ParsedCatalog parsedCatalog, TableData offersTable) {
+        List<TableData> referenceTables = new ArrayList<>();
+        for (String tableName : OFFER_REFERENCE_TABLES) {
+            TableData tableData = getTableData(parsedCatalog, tableName);
+            validateSchema(tableData);
+            referenceTables.add(tableData);
         }
 
-        String ddlChange = getDDLChange(tableData.tableName());
+        OfferBatchWriter.Session session = offerBatchWriter.openSession();
+        session.write(new OfferBatch(
+                offersTable,
+                parsedCatalog.offerVendors(),
+                parsedCatalog.offerMetas(),
+                parsedCatalog.offerParams()
+        ), referenceTables);
+        return session.finish();
+    }
+
+    private void validateSchema(TableData tableData) {
+        requireTable(tableData.tableName());
+        rejectDdlChange(ddlChange(tableData));
+    }
+
+    private SchemaSnapshot.Table requireTable(String tableName) {
+        SchemaSnapshot.Table dbTable = schemaSnapshotProvider.get().table(tableName);
+        if (dbTable == null) {
+            throw new IllegalStateException("Table " + tableName + " is missing. Run Flyway migrations first.");
+        }
+        return dbTable;
+    }
+
+    private void rejectDdlChange(String ddlChange) {
         if (ddlChange != null && !ddlChange.isBlank()) {
             throw new SchemaChangeNotAllowedException(
                     "Schema differs from XML. Create Flyway migration first:\n" + ddlChange
             );
         }
+    }
 
-        switch (tableData.tableName()) {
-            case "offers" -> updateOffersWithRelatedTables(parsedCatalog, tableData);
-            case "currency" -> currencyRepository.upsert(tableData.rows());
-            case "categories" -> categoriesRepository.upsert(tableData.rows());
-            default -> throw new IllegalArgumentException("Unsupported table update: " + tableData.tableName());
-        }
+    private boolean isStreaming() {
+        return ingestionProperties.getMode() == IngestionProperties.Mode.STREAMING;
+    }
+
+    private boolean isCheckpointed() {
+        return ingestionProperties.getMode() == IngestionProperties.Mode.CHECKPOINTED;
     }
 
-    private void updateOffersWithRelatedTables(ParsedCatalog parsedCatalog, TableData offersTable) {
-        TableData currencyTable = getTableData(parsedCatalog, "currency");
-        TableData categoriesTable = getTableData(parsedCatalog, "categories");
+    private SyncReport updateCheckpointed() {
+        StreamedOffersSchema offersSchema = new StreamedOffersSchema();
+        return checkpointedIngestion.run(new CatalogStreamListener() {
+
+            @Override
+            public void onTable(TableData tableData) {
+                updateReferenceTable(tableData);
+            }
 
-        currencyRepository.upsert(currencyTable.rows());
-        categoriesRepository.upsert(categoriesTable.rows());
-        vendorRepository.upsert(parsedCatalog.offerVendors());
+            @Override
+            public void onOfferBatch(OfferBatch offerBatch) {
+                offersSchema.validateBatch(offerBatch.offers());
+            }
 
-        Set<Long> offerIds = offersRepository.upsert(offersTable.rows());
-        offerMetaRepository.replaceForOffers(offerIds, parsedCatalog.offerMetas());
-        offerParamsRepository.replaceForOffers(offerIds, parsedCatalog.offerParams());
+            @Override
+            public void onCatalogEnd() {
+                offersSchema.validateComplete();
+            }
+        });
     }
 
-    private ParsedCatalog loadCatalog() {
-        Instant now = Instant.now();
-        ParsedCatalog localCache = cachedCatalog;
-        if (localCache != null && loadedAt.plus(CACHE_TTL).isAfter(now)) {
-            return localCache;
-        }
+    private SyncReport updateStreaming() {
+        OfferBatchWriter.Session session = offerBatchWriter.openSession();
+        StreamedOffersSchema offersSchema = new StreamedOffersSchema();
+        catalogIngestionPipeline.run(new CatalogStreamListener() {
 
-        synchronized (this) {
-            if (cachedCatalog != null && loadedAt.plus(CACHE_TTL).isAfter(Instant.now())) {
-                return cachedCatalog;
+            @Override
+            public void onTable(TableData tableData) {
+                updateReferenceTable(tableData);
             }
-            cachedCatalog = catalogXmlParser.parse();
-            loadedAt = Instant.now();
-            return cachedCatalog;
-        }
+
+            @Override
+            public void onOfferBatch(OfferBatch offerBatch) {
+                offersSchema.validateBatch(offerBatch.offers());
+                session.write(offerBatch);
+            }
+
+            @Override
+            public void onCatalogEnd() {
+                offersSchema.validateComplete();
+            }
+        });
+        return session.finish();
+    }
+
+    private ParsedCatalog loadCatalog() {
+        return catalogSnapshot.get();
     }
 
     private TableData getTableData(String tableName) {
+        VersionedSnapshotHolder<TableData> sectionSnapshot = sectionSnapshots.get(normalizeTableName(tableName));
+        if (sectionSnapshot != null) {
+            return sectionSnapshot.get();
+        }
         return getTableData(loadCatalog(), tableName);
     }
 
@@ -252,33 +428,6 @@ public class XmlCatalogServiceImpl implements XmlCatalogService {
         };
     }
 
-    private boolean tableExists(String tableName) {
-        Field<Integer> countField = DSL.count().as("cnt");
-        Integer count = dslContext.select(countField)
-                .from(DSL.table(DSL.name("information_schema", "tables")))
-                .where(DSL.field(DSL.name("table_schema"), String.class).eq(schemaName))
-                .and(DSL.field(DSL.name("table_name"), String.class).eq(tableName))
-                .fetchOne(countField);
-        return count == null || count <= 0;
-    }
-
-    private Map<String, String> loadDbColumns(String tableName) {
-        Field<String> columnNameField = DSL.field(DSL.name("column_name"), String.class);
-        Field<String> dataTypeField = DSL.field(DSL.name("data_type"), String.class);
-        Result<Record2<String, String>> result = dslContext.select(columnNameField, dataTypeField)
-                .from(DSL.table(DSL.name("information_schema", "columns")))
-                .where(DSL.field(DSL.name("table_schema"), String.class).eq(schemaName))
-                .and(DSL.field(DSL.name("table_name"), String.class).eq(tableName))
-                .orderBy(DSL.field(DSL.name("ordinal_position"), Integer.class))
-                .fetch();
-
-        LinkedHashMap<String, String> columns = new LinkedHashMap<>();
-        for (Record2<String, String> row : result) {
-            columns.put(row.value1(), row.value2());
-        }
-        return columns;
-    }
-
     private boolean isCompatible(ColumnType expectedType, String dbDataType) {
         String normalizedDbType = dbDataType.toLowerCase(Locale.ROOT);
         return switch (expectedType) {
@@ -323,4 +472,23 @@ public class XmlCatalogServiceImpl implements XmlCatalogService {
     private String qualifiedTable(String tableName) {
         return dslContext.render(DSL.name(schemaName, tableName));
     }
+
+    /**
+     * Validates offers that arrive in batches. Every batch is checked against the cached schema for new
+     * columns and incompatible types before it is written; columns missing from the XML can only be
+     * judged once the whole catalog has been seen.
+     */
+    private final class StreamedOffersSchema {
+
+        private final Set<String> xmlColumns = new HashSet<>();
+
+        private void validateBatch(TableData offers) {
+            rejectDdlChange(columnChanges(requireTable(offers.tableName()), offers));
+            xmlColumns.addAll(offers.columns().keySet());
+        }
+
+        private void validateComplete() {
+            checkRemovedColumns(requireTable("offers"), xmlColumns);
+        }
+    }
 }
@@ -0,0 +1,89 @@
+package com.example.testex.domain.model;
+
+import java.util.BitSet;
+import java.util.List;
+
+final class BooleanColumnData extends ColumnData {
+
+    private final int size;
+    private final BitSet trueRows;
+    private final BitSet nullRows;
+    private final String[] nonCanonicalValues;
+
+    private BooleanColumnData(int size, BitSet trueRows, BitSet nullRows, String[] nonCanonicalValues) {
+        this.size = size;
+        this.trueRows = trueRows;
+        this.nullRows = nullRows;
+        this.nonCanonicalValues = nonCanonicalValues;
+    }
+
+    static BooleanColumnData of(List<String> source) {
+        int size = source.size();
+        BitSet trueRows = new BitSet();
+        BitSet nullRows = new BitSet();
+        String[] nonCanonicalValues = null;
+        for (int row = 0; row < size; row++) {
+            String rawValue = source.get(row);
+            Boolean value = VALUE_PARSER.parseBoolean(rawValue);
+            if (value == null) {
+                nullRows.set(row);
+            } else if (value) {
+                trueRows.set(row);
+            }
+            boolean canonical = value == null ? rawValue == null : value.toString().equals(rawValue);
+            if (!canonical) {
+                if (nonCanonicalValues == null) {
+                    nonCanonicalValues = new String[size];
+                }
+                nonCanonicalValues[row] = rawValue;
+            }
+        }
+        return new BooleanColumnData(size, trueRows, nullRows, nonCanonicalValues);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String get(int row) {
+        if (nonCanonicalValues != null && nonCanonicalValues[row] != null) {
+            return nonCanonicalValues[row];
+        }
+        if (nullRows.get(row)) {
+            return null;
+        }
+        return trueRows.get(row) ? "true" : "false";
+    }
+
+    @Override
+    public ColumnData select(int[] rows) {
+        BitSet selectedTrueRows = new BitSet();
+        BitSet selectedNullRows = new BitSet();
+        String[] selectedNonCanonicalValues = nonCanonicalValues == null ? null : new String[rows.length];
+        for (int index = 0; index < rows.length; index++) {
+            int row = rows[index];
+            if (trueRows.get(row)) {
+                selectedTrueRows.set(index);
+            }
+            if (nullRows.get(row)) {
+                selectedNullRows.set(index);
+            }
+            if (nonCanonicalValues != null) {
+                selectedNonCanonicalValues[index] = nonCanonicalValues[row];
+            }
+        }
+        return new BooleanColumnData(rows.length, selectedTrueRows, selectedNullRows, selectedNonCanonicalValues);
+    }
+
+    @Override
+    public boolean hasBoolean(int row) {
+        return !nullRows.get(row);
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        return trueRows.get(row);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.testex.domain.model;
+
+import com.example.testex.domain.util.SqlValueParser;
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public abstract class ColumnData {
+
+    static final SqlValueParser VALUE_PARSER = new SqlValueParser();
+
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+    private static final int MIN_DICTIONARY_ROWS = 16;
+
+    private volatile LongValues parsedLongs;
+    private volatile BooleanValues parsedBooleans;
+    private volatile BigDecimal[] parsedDecimals;
+
+    public abstract int size();
+
+    public abstract String get(int row);
+
+    public abstract ColumnData select(int[] rows);
+
+    public boolean hasLong(int row) {
+        return !parsedLongs().nullRows().get(row);
+    }
+
+    public long getLong(int row) {
+        return parsedLongs().values()[row];
+    }
+
+    public boolean hasBoolean(int row) {
+        return !parsedBooleans().nullRows().get(row);
+    }
+
+    public boolean getBoolean(int row) {
+        return parsedBooleans().trueRows().get(row);
+    }
+
+    public BigDecimal getDecimal(int row) {
+        return parsedDecimals()[row];
+    }
+
+    public String getText(int row) {
+        String value = get(row);
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public static ColumnData encode(List<String> values, ColumnType columnType) {
+        if (columnType == ColumnType.BOOLEAN) {
+            return BooleanColumnData.of(values);
+        }
+
+        int size = values.size();
+        Map<String, Integer> distinct = new HashMap<>();
+        boolean lowCardinality = size >= MIN_DICTIONARY_ROWS;
+        for (int row = 0; row < size && lowCardinality; row++) {
+            distinct.putIfAbsent(values.get(row), distinct.size());
+            lowCardinality = distinct.size() <= MAX_DICTIONARY_SIZE && distinct.size() <= size / 4;
+        }
+
+        if (lowCardinality) {
+            return DictionaryColumnData.of(values, distinct, columnType);
+        }
+        if (columnType == ColumnType.BIGINT) {
+            return LongColumnData.of(values);
+        }
+        return new StringColumnData(values.toArray(String[]::new)).parsedAs(columnType);
+    }
+
+    ColumnData parsedAs(ColumnType columnType) {
+        switch (columnType) {
+            case BIGINT -> parsedLongs();
+            case BOOLEAN -> parsedBooleans();
+            case NUMERIC -> parsedDecimals();
+            case TEXT -> {
+            }
+        }
+        return this;
+    }
+
+    private LongValues parsedLongs() {
+        LongValues longs = parsedLongs;
+        if (longs == null) {
+            longs = LongValues.parse(this);
+            parsedLongs = longs;
+        }
+        return longs;
+    }
+
+    private BooleanValues parsedBooleans() {
+        BooleanValues booleans = parsedBooleans;
+        if (booleans == null) {
+            booleans = BooleanValues.parse(this);
+            parsedBooleans = booleans;
+        }
+        return booleans;
+    }
+
+    private BigDecimal[] parsedDecimals() {
+        BigDecimal[] decimals = parsedDecimals;
+        if (decimals == null) {
+            decimals = new BigDecimal[size()];
+            for (int row = 0; row < decimals.length; row++) {
+                decimals[row] = VALUE_PARSER.parseDecimal(get(row));
+            }
+            parsedDecimals = decimals;
+        }
+        return decimals;
+    }
+
+    private record LongValues(long[] values, BitSet nullRows) {
+
+        static LongValues parse(ColumnData column) {
+            long[] values = new long[column.size()];
+            BitSet nullRows = new BitSet();
+            for (int row = 0; row < values.length; row++) {
+                Long value = VALUE_PARSER.parseLong(column.get(row));
+                if (value == null) {
+                    nullRows.set(row);
+                } else {
+                    values[row] = value;
+                }
+            }
+            return new LongValues(values, nullRows);
+        }
+    }
+
+    private record BooleanValues(BitSet trueRows, BitSet nullRows) {
+
+        static BooleanValues parse(ColumnData column) {
+            BitSet trueRows = new BitSet();
+            BitSet nullRows = new BitSet();
+            for (int row = 0; row < column.size(); row++) {
+                Boolean value = VALUE_PARSER.parseBoolean(column.get(row));
+                if (value == null) {
+                    nullRows.set(row);
+                } else if (value) {
+                    trueRows.set(row);
+                }
+            }
+            return new BooleanValues(trueRows, nullRows);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.testex.domain.model;
+
+public record ColumnStats(
+        long rowCount,
+        long nullCount,
+        long distinctCount,
+        boolean distinctExact,
+        String min,
+        String max,
+        Uniqueness uniqueness
+) {
+
+    public boolean unique() {
+        return uniqueness == Uniqueness.UNIQUE;
+    }
+
+    public ColumnStats withUniqueness(Uniqueness resolvedUniqueness) {
+        return new ColumnStats(rowCount, nullCount, distinctCount, distinctExact, min, max, resolvedUniqueness);
+    }
+
+    public enum Uniqueness {
+        UNIQUE,
+        NOT_UNIQUE,
+        UNKNOWN
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.testex.domain.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+final class DictionaryColumnData extends ColumnData {
+
+    private final ColumnData dictionary;
+    private final short[] codes;
+
+    private DictionaryColumnData(ColumnData dictionary, short[] codes) {
+        this.dictionary = dictionary;
+        this.codes = codes;
+    }
+
+    static DictionaryColumnData of(List<String> values, Map<String, Integer> codesByValue, ColumnType columnType) {
+        String[] entries = new String[codesByValue.size()];
+        for (Map.Entry<String, Integer> entry : codesByValue.entrySet()) {
+            entries[entry.getValue()] = entry.getKey();
+        }
+        short[] codes = new short[values.size()];
+        for (int row = 0; row < codes.length; row++) {
+            codes[row] = (short) codesByValue.get(values.get(row)).intValue();
+        }
+
+        return new DictionaryColumnData(new StringColumnData(entries).parsedAs(columnType), codes);
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    @Override
+    public String get(int row) {
+        return dictionary.get(code(row));
+    }
+
+    @Override
+    public ColumnData select(int[] rows) {
+        short[] selected = new short[rows.length];
+        for (int index = 0; index < rows.length; index++) {
+            selected[index] = codes[rows[index]];
+        }
+        return new DictionaryColumnData(dictionary, selected);
+    }
+
+    @Override
+    public boolean hasLong(int row) {
+        return dictionary.hasLong(code(row));
+    }
+
+    @Override
+    public long getLong(int row) {
+        return dictionary.getLong(code(row));
+    }
+
+    @Override
+    public boolean hasBoolean(int row) {
+        return dictionary.hasBoolean(code(row));
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        return dictionary.getBoolean(code(row));
+    }
+
+    @Override
+    public BigDecimal getDecimal(int row) {
+        return dictionary.getDecimal(code(row));
+    }
+
+    @Override
+    public String getText(int row) {
+        return dictionary.getText(code(row));
+    }
+
+    private int code(int row) {
+        return Short.toUnsignedInt(codes[row]);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.testex.domain.model;
+
+public record IngestionRun(
+        long id,
+        String feedVersion,
+        int chunkSize,
+        Status status
+) {
+
+    public enum Status {
+        RUNNING,
+        FAILED,
+        COMPLETED
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.testex.domain.model;
+
+import java.util.BitSet;
+import java.util.List;
+
+final class LongColumnData extends ColumnData {
+
+    private final long[] values;
+    private final BitSet nullRows;
+    private final String[] nonCanonicalValues;
+
+    private LongColumnData(long[] values, BitSet nullRows, String[] nonCanonicalValues) {
+        this.values = values;
+        this.nullRows = nullRows;
+        this.nonCanonicalValues = nonCanonicalValues;
+    }
+
+    static LongColumnData of(List<String> source) {
+        long[] values = new long[source.size()];
+        BitSet nullRows = new BitSet();
+        String[] nonCanonicalValues = null;
+        for (int row = 0; row < values.length; row++) {
+            String rawValue = source.get(row);
+            Long value = VALUE_PARSER.parseLong(rawValue);
+            if (value == null) {
+                nullRows.set(row);
+            } else {
+                values[row] = value;
+            }
+            boolean canonical = value == null ? rawValue == null : Long.toString(value).equals(rawValue);
+            if (!canonical) {
+                if (nonCanonicalValues == null) {
+                    nonCanonicalValues = new String[values.length];
+                }
+                nonCanonicalValues[row] = rawValue;
+            }
+        }
+        return new LongColumnData(values, nullRows, nonCanonicalValues);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String get(int row) {
+        if (nonCanonicalValues != null && nonCanonicalValues[row] != null) {
+            return nonCanonicalValues[row];
+        }
+        return nullRows.get(row) ? null : Long.toString(values[row]);
+    }
+
+    @Override
+    public ColumnData select(int[] rows) {
+        long[] selectedValues = new long[rows.length];
+        BitSet selectedNullRows = new BitSet();
+        String[] selectedNonCanonicalValues = nonCanonicalValues == null ? null : new String[rows.length];
+        for (int index = 0; index < rows.length; index++) {
+            int row = rows[index];
+            selectedValues[index] = values[row];
+            if (nullRows.get(row)) {
+                selectedNullRows.set(index);
+            }
+            if (nonCanonicalValues != null) {
+                selectedNonCanonicalValues[index] = nonCanonicalValues[row];
+            }
+        }
+        return new LongColumnData(selectedValues, selectedNullRows, selectedNonCanonicalValues);
+    }
+
+    @Override
+    public boolean hasLong(int row) {
+        return !nullRows.get(row);
+    }
+
+    @Override
+    public long getLong(int row) {
+        return values[row];
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.testex.domain.model;
+
+import java.util.List;
+
+public record OfferBatch(
+        TableData offers,
+        List<OfferVendor> offerVendors,
+        List<OfferMeta> offerMetas,
+        List<OfferParam> offerParams
+) {
+}
@@ -1,7 +1,7 @@
 package com.example.testex.domain.model;
 
 public record OfferMeta(
-        String offerId,
+        Long offerId,
         String url,
         String picture,
         String name,
@@ -1,7 +1,7 @@
 package com.example.testex.domain.model;
 
 public record OfferParam(
-        String offerId,
+        Long offerId,
         String paramName,
         String paramValue
 ) {
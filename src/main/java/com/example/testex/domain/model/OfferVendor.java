@@ -1,7 +1,7 @@
 package com.example.testex.domain.model;
 
 public record OfferVendor(
-        String offerId,
+        Long offerId,
         String vendor,
         String vendorCode
 ) {
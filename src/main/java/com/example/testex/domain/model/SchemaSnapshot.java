@@ -0,0 +1,65 @@
+package com.example.testex.domain.model;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SchemaSnapshot {
+
+    private final String schemaName;
+    private final LinkedHashMap<String, Table> tables;
+    private final Instant loadedAt;
+
+    public SchemaSnapshot(String schemaName, LinkedHashMap<String, Table> tables, Instant loadedAt) {
+        this.schemaName = schemaName;
+        this.tables = new LinkedHashMap<>(tables);
+        this.loadedAt = loadedAt;
+    }
+
+    public String schemaName() {
+        return schemaName;
+    }
+
+    public boolean hasTable(String tableName) {
+        return tables.containsKey(tableName);
+    }
+
+    public Table table(String tableName) {
+        return tables.get(tableName);
+    }
+
+    public Map<String, Table> tables() {
+        return Collections.unmodifiableMap(tables);
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public record Table(
+            String tableName,
+            Map<String, String> columnTypes,
+            List<String> primaryKeyColumns,
+            List<Index> indexes,
+            List<Constraint> constraints
+    ) {
+    }
+
+    public record Index(
+            String indexName,
+            String definition,
+            boolean primaryKey,
+            boolean constraint
+    ) {
+    }
+
+    public record Constraint(
+            String constraintName,
+            String constraintType,
+            String definition,
+            String referencedTable
+    ) {
+    }
+}
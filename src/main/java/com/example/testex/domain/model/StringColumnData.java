@@ -0,0 +1,29 @@
+package com.example.testex.domain.model;
+
+final class StringColumnData extends ColumnData {
+
+    private final String[] values;
+
+    StringColumnData(String[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public ColumnData select(int[] rows) {
+        String[] selected = new String[rows.length];
+        for (int index = 0; index < rows.length; index++) {
+            selected[index] = values[rows[index]];
+        }
+        return new StringColumnData(selected);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.testex.domain.model;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public record SyncReport(
+        long inserted,
+        long changed,
+        long unchanged,
+        long removed,
+        Map<String, Duration> phaseTimes
+) {
+
+    public SyncReport(long inserted, long changed, long unchanged, long removed) {
+        this(inserted, changed, unchanged, removed, Map.of());
+    }
+
+    public static SyncReport empty() {
+        return new SyncReport(0, 0, 0, 0);
+    }
+
+    public SyncReport plus(SyncReport other) {
+        LinkedHashMap<String, Duration> mergedPhaseTimes = new LinkedHashMap<>(phaseTimes);
+        other.phaseTimes.forEach((phase, time) -> mergedPhaseTimes.merge(phase, time, Duration::plus));
+        return new SyncReport(
+                inserted + other.inserted,
+                changed + other.changed,
+                unchanged + other.unchanged,
+                removed + other.removed,
+                mergedPhaseTimes
+        );
+    }
+
+    public SyncReport withPhaseTime(String phase, Duration time) {
+        return plus(new SyncReport(0, 0, 0, 0, Map.of(phase, time)));
+    }
+}
@@ -1,28 +1,61 @@
 package com.example.testex.domain.model;
 
+import com.example.testex.domain.util.ColumnStatsCollector;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TableData {
 
     private final String tableName;
     private final String idColumn;
     private final LinkedHashMap<String, ColumnSpec> columns;
-    private final List<Map<String, String>> rows;
+    private final LinkedHashMap<String, ColumnData> columnData;
+    private final ConcurrentHashMap<String, ColumnStats> columnStats;
+    private final int rowCount;
 
     public TableData(
             String tableName,
             String idColumn,
             LinkedHashMap<String, ColumnSpec> columns,
             List<Map<String, String>> rows
+    ) {
+        this(tableName, idColumn, columns, encodeRows(columns, rows), rows.size());
+    }
+
+    public TableData(
+            String tableName,
+            String idColumn,
+            LinkedHashMap<String, ColumnSpec> columns,
+            LinkedHashMap<String, ColumnData> columnData,
+            int rowCount
+    ) {
+        this(tableName, idColumn, columns, columnData, new LinkedHashMap<>(), rowCount);
+    }
+
+    public TableData(
+            String tableName,
+            String idColumn,
+            LinkedHashMap<String, ColumnSpec> columns,
+            LinkedHashMap<String, ColumnData> columnData,
+            LinkedHashMap<String, ColumnStats> columnStats,
+            int rowCount
     ) {
         this.tableName = tableName;
         this.idColumn = idColumn;
         this.columns = new LinkedHashMap<>(columns);
-        this.rows = new ArrayList<>(rows);
+        this.columnData = new LinkedHashMap<>(columnData);
+        this.columnStats = new ConcurrentHashMap<>(columnStats);
+        this.rowCount = rowCount;
     }
 
     public String tableName() {
@@ -41,7 +74,126 @@ public class TableData {
         return new ArrayList<>(columns.keySet());
     }
 
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public ColumnData column(String columnName) {
+        return columnData.get(columnName);
+    }
+
+    public ColumnStats columnStats(String columnName) {
+        ColumnData column = columnData.get(columnName);
+        if (column == null) {
+            return null;
+        }
+        ColumnStats stats = columnStats.get(columnName);
+        if (stats != null && stats.uniqueness() != ColumnStats.Uniqueness.UNKNOWN) {
+            return stats;
+        }
+        ColumnStats confirmed = ColumnStatsCollector.confirmUniqueness(
+                column,
+                stats == null ? ColumnStatsCollector.collect(column, columns.get(columnName).columnType()) : stats
+        );
+        columnStats.put(columnName, confirmed);
+        return confirmed;
+    }
+
+    /**
+     * Stats describe all rows, so the selection starts without them and collects its own on first lookup.
+     */
+    public TableData selectRows(int[] rows) {
+        LinkedHashMap<String, ColumnData> selected = new LinkedHashMap<>();
+        for (Map.Entry<String, ColumnData> entry : columnData.entrySet()) {
+            selected.put(entry.getKey(), entry.getValue().select(rows));
+        }
+        return new TableData(tableName, idColumn, columns, selected, rows.length);
+    }
+
     public List<Map<String, String>> rows() {
-        return Collections.unmodifiableList(rows);
+        return new RowList();
+    }
+
+    private static LinkedHashMap<String, ColumnData> encodeRows(
+            LinkedHashMap<String, ColumnSpec> columns,
+            List<Map<String, String>> rows
+    ) {
+        LinkedHashMap<String, ColumnData> columnData = new LinkedHashMap<>();
+        for (ColumnSpec columnSpec : columns.values()) {
+            List<String> values = new ArrayList<>(rows.size());
+            for (Map<String, String> row : rows) {
+                values.add(row.get(columnSpec.columnName()));
+            }
+            columnData.put(columnSpec.columnName(), ColumnData.encode(values, columnSpec.columnType()));
+        }
+        return columnData;
+    }
+
+    private final class RowList extends AbstractList<Map<String, String>> implements RandomAccess {
+
+        @Override
+        public Map<String, String> get(int index) {
+            if (index < 0 || index >= rowCount) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return new RowView(index);
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    }
+
+    private final class RowView extends AbstractMap<String, String> {
+
+        private final int row;
+
+        private RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(Object key) {
+            ColumnData column = columnData.get(key);
+            return column == null ? null : column.get(row);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return columnData.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return columnData.size();
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    Iterator<Map.Entry<String, ColumnData>> columnIterator = columnData.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return columnIterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            Map.Entry<String, ColumnData> column = columnIterator.next();
+                            return new SimpleImmutableEntry<>(column.getKey(), column.getValue().get(row));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return columnData.size();
+                }
+            };
+        }
     }
 }
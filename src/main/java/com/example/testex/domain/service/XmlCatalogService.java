@@ -1,6 +1,10 @@
 package com.example.testex.domain.service;
 
+import com.example.testex.domain.model.ColumnStats;
+import com.example.testex.domain.model.ParsedCatalog;
+import com.example.testex.domain.model.SyncReport;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 
 public interface XmlCatalogService {
 
@@ -12,9 +16,19 @@ public interface XmlCatalogService {
 
     void update(String tableName);
 
+    void reload();
+
+    void revalidateCatalog();
+
+    SyncReport getLastSyncReport();
+
+    ParsedCatalog getParsedCatalog();
+
     ArrayList<String> getColumnNames(String tableName);
 
     boolean isColumnId(String tableName, String columnName);
 
+    LinkedHashMap<String, ColumnStats> getColumnStats(String tableName);
+
     String getDDLChange(String tableName);
 }
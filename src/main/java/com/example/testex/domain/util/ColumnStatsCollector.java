@@ -0,0 +1,122 @@
+package com.example.testex.domain.util;
+
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.domain.model.ColumnStats;
+import com.example.testex.domain.model.ColumnType;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ColumnStatsCollector {
+
+    private static final int EXACT_DISTINCT_LIMIT = 1 << 16;
+    private static final int SKETCH_PRECISION = 14;
+    private static final double NOT_UNIQUE_MARGIN = 5.0;
+
+    private long rowCount;
+    private long nullCount;
+    private Set<String> distinctValues = new HashSet<>();
+    private HyperLogLog sketch;
+    private boolean duplicateSeen;
+    private String min;
+    private String max;
+    private boolean hasLongValues;
+    private long minLong;
+    private long maxLong;
+
+    public void accept(String value) {
+        rowCount++;
+        if (value == null || value.isBlank()) {
+            nullCount++;
+            return;
+        }
+        if (min == null || value.compareTo(min) < 0) {
+            min = value;
+        }
+        if (max == null || value.compareTo(max) > 0) {
+            max = value;
+        }
+        if (sketch != null) {
+            sketch.add(value);
+            return;
+        }
+        if (!distinctValues.add(value)) {
+            duplicateSeen = true;
+        } else if (distinctValues.size() > EXACT_DISTINCT_LIMIT) {
+            sketch = new HyperLogLog(SKETCH_PRECISION);
+            for (String distinctValue : distinctValues) {
+                sketch.add(distinctValue);
+            }
+            distinctValues = null;
+        }
+    }
+
+    public void acceptLong(long value) {
+        if (!hasLongValues) {
+            minLong = value;
+            maxLong = value;
+            hasLongValues = true;
+            return;
+        }
+        minLong = Math.min(minLong, value);
+        maxLong = Math.max(maxLong, value);
+    }
+
+    public ColumnStats build(ColumnType columnType) {
+        long nonNullCount = rowCount - nullCount;
+        boolean numeric = columnType == ColumnType.BIGINT && hasLongValues;
+        String minValue = numeric ? Long.toString(minLong) : min;
+        String maxValue = numeric ? Long.toString(maxLong) : max;
+
+        if (sketch == null) {
+            return new ColumnStats(
+                    rowCount,
+                    nullCount,
+                    distinctValues.size(),
+                    true,
+                    minValue,
+                    maxValue,
+                    distinctValues.size() == nonNullCount
+                            ? ColumnStats.Uniqueness.UNIQUE
+                            : ColumnStats.Uniqueness.NOT_UNIQUE
+            );
+        }
+
+        long estimate = Math.min(sketch.estimate(), nonNullCount);
+        boolean clearlyNotUnique = duplicateSeen
+                || estimate < nonNullCount * (1 - NOT_UNIQUE_MARGIN * sketch.relativeError());
+        return new ColumnStats(
+                rowCount,
+                nullCount,
+                estimate,
+                false,
+                minValue,
+                maxValue,
+                clearlyNotUnique ? ColumnStats.Uniqueness.NOT_UNIQUE : ColumnStats.Uniqueness.UNKNOWN
+        );
+    }
+
+    public static ColumnStats collect(ColumnData column, ColumnType columnType) {
+        ColumnStatsCollector collector = new ColumnStatsCollector();
+        for (int row = 0; row < column.size(); row++) {
+            collector.accept(column.get(row));
+            if (columnType == ColumnType.BIGINT && column.hasLong(row)) {
+                collector.acceptLong(column.getLong(row));
+            }
+        }
+        return collector.build(columnType);
+    }
+
+    public static ColumnStats confirmUniqueness(ColumnData column, ColumnStats columnStats) {
+        if (columnStats.uniqueness() != ColumnStats.Uniqueness.UNKNOWN) {
+            return columnStats;
+        }
+        Set<String> seen = new HashSet<>();
+        for (int row = 0; row < column.size(); row++) {
+            String value = column.get(row);
+            if (value != null && !value.isBlank() && !seen.add(value)) {
+                return columnStats.withUniqueness(ColumnStats.Uniqueness.NOT_UNIQUE);
+            }
+        }
+        return columnStats.withUniqueness(ColumnStats.Uniqueness.UNIQUE);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.testex.domain.util;
+
+import com.example.testex.domain.model.ColumnData;
+import com.example.testex.domain.model.ColumnSpec;
+import com.example.testex.domain.model.ColumnType;
+import com.example.testex.domain.model.OfferMeta;
+import com.example.testex.domain.model.OfferParam;
+import com.example.testex.domain.model.OfferVendor;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Hashes an offer row column by column with the typed accessors, in the order of the given columns,
+ * together with its vendor, meta and params.
+ */
+public class OfferFingerprinter {
+
+    public long fingerprint(
+            List<ColumnSpec> columns,
+            ColumnData[] columnData,
+            int row,
+            OfferVendor offerVendor,
+            OfferMeta offerMeta,
+            List<OfferParam> offerParams
+    ) {
+        MessageDigest digest = newDigest();
+        for (int index = 0; index < columnData.length; index++) {
+            ColumnSpec column = columns.get(index);
+            update(digest, column.columnName());
+            update(digest, column.columnType(), columnData[index], row);
+        }
+        update(digest, offerVendor == null ? null : offerVendor.vendor());
+        if (offerMeta == null) {
+            update(digest, null);
+        } else {
+            update(digest, offerMeta.url());
+            update(digest, offerMeta.picture());
+            update(digest, offerMeta.name());
+            update(digest, offerMeta.description());
+        }
+        for (OfferParam offerParam : offerParams) {
+            update(digest, offerParam.paramName());
+            update(digest, offerParam.paramValue());
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private void update(MessageDigest digest, ColumnType columnType, ColumnData column, int row) {
+        if (column == null) {
+            update(digest, null);
+            return;
+        }
+        switch (columnType) {
+            case BIGINT -> {
+                if (column.hasLong(row)) {
+                    digest.update((byte) 1);
+                    digest.update(ByteBuffer.allocate(Long.BYTES).putLong(column.getLong(row)).array());
+                } else {
+                    digest.update((byte) 0);
+                }
+            }
+            case BOOLEAN -> {
+                if (column.hasBoolean(row)) {
+                    digest.update((byte) 1);
+                    digest.update((byte) (column.getBoolean(row) ? 1 : 0));
+                } else {
+                    digest.update((byte) 0);
+                }
+            }
+            case NUMERIC -> {
+                BigDecimal value = column.getDecimal(row);
+                update(digest, value == null ? null : value.stripTrailingZeros().toPlainString());
+            }
+            case TEXT -> update(digest, column.getText(row));
+        }
+    }
+
+    private void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+}
@@ -22,34 +22,108 @@ public class SqlValueParser {
         };
     }
 
-    private Object parseBoolean(String value) {
-        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
-            return Boolean.parseBoolean(value);
+    public Boolean parseBoolean(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if ("true".equalsIgnoreCase(trimmed)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(trimmed)) {
+            return Boolean.FALSE;
         }
         return null;
     }
 
-    private Object parseLong(String value) {
-        String normalized = value.replace(" ", "").replace(",", "");
-        if (!normalized.matches("-?\\d+")) {
+    public Long parseLong(String value) {
+        if (value == null) {
             return null;
         }
-        try {
-            return Long.parseLong(normalized);
-        } catch (NumberFormatException exception) {
+        int start = trimStart(value);
+        int end = trimEnd(value, start);
+        boolean negative = false;
+        boolean signAllowed = true;
+        int digits = 0;
+        long result = 0;
+        for (int index = start; index < end; index++) {
+            char character = value.charAt(index);
+            if (character == ' ' || character == ',') {
+                continue;
+            }
+            if (character == '-' && signAllowed) {
+                negative = true;
+                signAllowed = false;
+                continue;
+            }
+            if (character < '0' || character > '9') {
+                return null;
+            }
+            signAllowed = false;
+            int digit = character - '0';
+            if (result < (Long.MIN_VALUE + digit) / 10) {
+                return null;
+            }
+            result = result * 10 - digit;
+            digits++;
+        }
+        if (digits == 0) {
             return null;
         }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                return null;
+            }
+            return -result;
+        }
+        return result;
     }
 
-    private Object parseDecimal(String value) {
-        String normalized = value.replace(" ", "").replace(",", ".");
-        if (!normalized.matches("-?\\d+(\\.\\d+)?")) {
+    public BigDecimal parseDecimal(String value) {
+        if (value == null) {
             return null;
         }
-        try {
-            return new BigDecimal(normalized);
-        } catch (NumberFormatException exception) {
+        int start = trimStart(value);
+        int end = trimEnd(value, start);
+        StringBuilder normalized = new StringBuilder(end - start);
+        int state = 0;
+        for (int index = start; index < end; index++) {
+            char character = value.charAt(index);
+            if (character == ' ') {
+                continue;
+            }
+            if (character == '-' && state == 0) {
+                state = 1;
+                normalized.append(character);
+            } else if (character >= '0' && character <= '9') {
+                state = state <= 2 ? 2 : 4;
+                normalized.append(character);
+            } else if ((character == '.' || character == ',') && state == 2) {
+                state = 3;
+                normalized.append('.');
+            } else {
+                return null;
+            }
+        }
+        if (state != 2 && state != 4) {
             return null;
         }
+        return new BigDecimal(normalized.toString());
+    }
+
+    private int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
     }
 }
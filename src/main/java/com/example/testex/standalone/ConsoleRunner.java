@@ -1,8 +1,17 @@
 package com.example.testex.standalone;
 
+import com.example.testex.application.metrics.IngestionMetrics;
+import com.example.testex.application.metrics.IngestionProfiler;
+import com.example.testex.application.service.SyncDaemon;
+import com.example.testex.domain.model.ColumnStats;
+import com.example.testex.domain.model.SyncReport;
 import com.example.testex.domain.service.XmlCatalogService;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -10,15 +19,27 @@ import org.springframework.stereotype.Component;
 public class ConsoleRunner implements CommandLineRunner {
 
     private final XmlCatalogService xmlCatalogService;
+    private final IngestionMetrics ingestionMetrics;
+    private final IngestionProfiler ingestionProfiler;
+    private final SyncDaemon syncDaemon;
 
-    public ConsoleRunner(XmlCatalogService xmlCatalogService) {
+    public ConsoleRunner(
+            XmlCatalogService xmlCatalogService,
+            IngestionMetrics ingestionMetrics,
+            IngestionProfiler ingestionProfiler,
+            SyncDaemon syncDaemon
+    ) {
         this.xmlCatalogService = xmlCatalogService;
+        this.ingestionMetrics = ingestionMetrics;
+        this.ingestionProfiler = ingestionProfiler;
+        this.syncDaemon = syncDaemon;
     }
 
     @Override
     public void run(String... args) {
         if (args.length == 0) {
             runDemo();
+            printMetrics();
             return;
         }
 
@@ -28,14 +49,19 @@ public class ConsoleRunner implements CommandLineRunner {
             case "ddl" -> printDdl(args);
             case "columns" -> printColumns(args);
             case "is-id" -> printIsId(args);
+            case "column-stats" -> printColumnStats(args);
             case "ddl-change" -> printDdlChange(args);
             case "update" -> runUpdate(args);
+            case "reload" -> runReload();
+            case "profile" -> runProfile(args);
+            case "daemon" -> runDaemon();
             case "help" -> printHelp();
             default -> {
                 System.out.println("Unknown command: " + args[0]);
                 printHelp();
             }
         }
+        printMetrics();
     }
 
     private void runDemo() {
@@ -54,6 +80,7 @@ public class ConsoleRunner implements CommandLineRunner {
         }
         xmlCatalogService.update();
         System.out.println("Update done for all tables.");
+        printSyncReport();
     }
 
     private void printTableNames() {
@@ -85,6 +112,26 @@ public class ConsoleRunner implements CommandLineRunner {
         System.out.println(result);
     }
 
+    private void printColumnStats(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: column-stats <tableName> [columnName]");
+            return;
+        }
+        for (Map.Entry<String, ColumnStats> entry : xmlCatalogService.getColumnStats(args[1]).entrySet()) {
+            if (args.length > 2 && !entry.getKey().equals(args[2])) {
+                continue;
+            }
+            ColumnStats columnStats = entry.getValue();
+            System.out.println(entry.getKey()
+                    + ": rows=" + columnStats.rowCount()
+                    + ", nulls=" + columnStats.nullCount()
+                    + ", distinct=" + (columnStats.distinctExact() ? "" : "~") + columnStats.distinctCount()
+                    + ", min=" + columnStats.min()
+                    + ", max=" + columnStats.max()
+                    + ", unique=" + columnStats.unique());
+        }
+    }
+
     private void printDdlChange(String[] args) {
         if (args.length < 2) {
             System.out.println("Usage: ddl-change <tableName>");
@@ -97,24 +144,95 @@ public class ConsoleRunner implements CommandLineRunner {
         if (args.length == 1) {
             xmlCatalogService.update();
             System.out.println("Updated all tables.");
+            printSyncReport();
             return;
         }
         if (args.length == 2) {
             xmlCatalogService.update(args[1]);
             System.out.println("Updated table: " + args[1]);
+            printSyncReport();
             return;
         }
         System.out.println("Usage: update [tableName]");
         System.out.println("Received args: " + Arrays.toString(args));
     }
 
+    private void runReload() {
+        xmlCatalogService.reload();
+        System.out.println("Reloaded offers with a table swap.");
+        printSyncReport();
+    }
+
+    private void runProfile(String[] args) {
+        Path recordingFile = Path.of(args.length > 1 ? args[1] : "testex-profile.jfr");
+        IngestionProfiler.ProfileReport report = ingestionProfiler.profile(recordingFile, xmlCatalogService::update);
+        System.out.println("Updated all tables under a flight recording: " + recordingFile.toAbsolutePath());
+        printSyncReport();
+
+        System.out.println("Stages:");
+        System.out.println(String.format("  %-40s %6s %10s %10s %12s %12s %8s", "stage", "count", "total ms", "rows",
+                "bytes", "alloc MB", "gc ms"));
+        for (IngestionProfiler.StageProfile stage : report.stages()) {
+            System.out.println(String.format("  %-40s %6d %10d %10d %12d %12.1f %8d",
+                    stage.table() == null ? stage.stage() : stage.stage() + ":" + stage.table(),
+                    stage.count(), stage.duration().toMillis(), stage.rows(), stage.bytes(),
+                    stage.allocatedBytes() / 1048576.0, stage.gcPause().toMillis()));
+        }
+        System.out.println(String.format("  allocated=%.1f MB, gc=%d collections, %d ms paused",
+                report.allocatedBytes() / 1048576.0, report.gcCount(), report.gcPause().toMillis()));
+
+        System.out.println("Retained size estimates:");
+        for (Map.Entry<String, Long> entry : ingestionProfiler.retainedSizes(xmlCatalogService.getParsedCatalog())
+                .entrySet()) {
+            System.out.println(String.format("  %-40s %10.1f MB", entry.getKey(), entry.getValue() / 1048576.0));
+        }
+    }
+
+    private void runDaemon() {
+        syncDaemon.run(() -> {
+            printSyncReport();
+            printMetrics();
+        });
+    }
+
+    private void printSyncReport() {
+        SyncReport syncReport = xmlCatalogService.getLastSyncReport();
+        System.out.println("Offers: inserted=" + syncReport.inserted()
+                + ", changed=" + syncReport.changed()
+                + ", unchanged=" + syncReport.unchanged()
+                + ", removed=" + syncReport.removed());
+        if (!syncReport.phaseTimes().isEmpty()) {
+            List<String> phases = new ArrayList<>();
+            for (Map.Entry<String, Duration> entry : syncReport.phaseTimes().entrySet()) {
+                phases.add(entry.getKey() + "=" + entry.getValue().toMillis() + " ms");
+            }
+            System.out.println("Phases: " + String.join(", ", phases));
+        }
+    }
+
+    private void printMetrics() {
+        List<String> lines = ingestionMetrics.summary();
+        if (lines.isEmpty()) {
+            return;
+        }
+        System.out.println("Metrics:");
+        for (String line : lines) {
+            System.out.println("  " + line);
+        }
+        ingestionMetrics.reset();
+    }
+
     private void printHelp() {
         System.out.println("Commands:");
         System.out.println("  list");
         System.out.println("  ddl <tableName>");
         System.out.println("  columns <tableName>");
         System.out.println("  is-id <tableName> <columnName>");
+        System.out.println("  column-stats <tableName> [columnName]");
         System.out.println("  ddl-change <tableName>");
         System.out.println("  update [tableName]");
+        System.out.println("  reload");
+        System.out.println("  profile [recordingFile]");
+        System.out.println("  daemon");
     }
 }
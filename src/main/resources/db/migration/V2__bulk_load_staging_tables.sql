@@ -0,0 +1,28 @@
+CREATE UNLOGGED TABLE public.vendor_staging (
+    code TEXT,
+    name TEXT
+);
+
+CREATE UNLOGGED TABLE public.offers_staging (
+    id BIGINT,
+    category_id BIGINT,
+    currency_id TEXT,
+    vendor_code TEXT,
+    available BOOLEAN,
+    price BIGINT,
+    count BIGINT
+);
+
+CREATE UNLOGGED TABLE public.offer_meta_staging (
+    offer_id BIGINT,
+    url TEXT,
+    picture TEXT,
+    name TEXT,
+    description TEXT
+);
+
+CREATE UNLOGGED TABLE public.offer_params_staging (
+    offer_id BIGINT,
+    param_name TEXT,
+    param_value TEXT
+);
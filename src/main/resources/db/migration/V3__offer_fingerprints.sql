@@ -0,0 +1,8 @@
+CREATE TABLE public.offer_fingerprint (
+    offer_id BIGINT PRIMARY KEY,
+    fingerprint BIGINT NOT NULL,
+    CONSTRAINT offer_fingerprint_offer_id_fkey
+        FOREIGN KEY (offer_id)
+        REFERENCES public.offers (id)
+        ON DELETE CASCADE
+);
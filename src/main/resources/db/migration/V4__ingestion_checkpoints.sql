@@ -0,0 +1,25 @@
+CREATE TABLE public.ingestion_run (
+    id BIGSERIAL PRIMARY KEY,
+    feed_version TEXT NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    status TEXT NOT NULL,
+    started_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    finished_at TIMESTAMPTZ
+);
+
+CREATE INDEX idx_ingestion_run_feed_version ON public.ingestion_run (feed_version, chunk_size);
+
+CREATE TABLE public.ingestion_checkpoint (
+    run_id BIGINT NOT NULL,
+    chunk_index INTEGER NOT NULL,
+    offer_count INTEGER NOT NULL,
+    inserted BIGINT NOT NULL,
+    changed BIGINT NOT NULL,
+    unchanged BIGINT NOT NULL,
+    committed_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (run_id, chunk_index),
+    CONSTRAINT ingestion_checkpoint_run_id_fkey
+        FOREIGN KEY (run_id)
+        REFERENCES public.ingestion_run (id)
+        ON DELETE CASCADE
+);
@@ -0,0 +1,3 @@
+CREATE UNLOGGED TABLE public.offer_ids_staging (
+    offer_id BIGINT PRIMARY KEY
+);
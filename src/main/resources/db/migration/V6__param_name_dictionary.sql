@@ -0,0 +1,27 @@
+CREATE TABLE public.param_name (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name TEXT NOT NULL,
+    CONSTRAINT param_name_name_key UNIQUE (name)
+);
+
+INSERT INTO public.param_name (name)
+SELECT DISTINCT param_name FROM public.offer_params ORDER BY param_name;
+
+ALTER TABLE public.offer_params ADD COLUMN param_name_id INTEGER;
+
+UPDATE public.offer_params p
+SET param_name_id = n.id
+FROM public.param_name n
+WHERE n.name = p.param_name;
+
+ALTER TABLE public.offer_params ALTER COLUMN param_name_id SET NOT NULL;
+ALTER TABLE public.offer_params DROP COLUMN param_name;
+ALTER TABLE public.offer_params
+    ADD CONSTRAINT offer_params_param_name_id_fkey
+        FOREIGN KEY (param_name_id)
+        REFERENCES public.param_name (id);
+
+CREATE INDEX idx_offer_params_param_name_id ON public.offer_params (param_name_id);
+
+ALTER TABLE public.offer_params_staging DROP COLUMN param_name;
+ALTER TABLE public.offer_params_staging ADD COLUMN param_name_id INTEGER;
@@ -0,0 +1,3 @@
+ALTER TABLE public.offer_ids_staging DROP CONSTRAINT offer_ids_staging_pkey;
+
+CREATE INDEX idx_offer_ids_staging_offer_id ON public.offer_ids_staging (offer_id);
@@ -0,0 +1,21 @@
+TRUNCATE public.vendor_staging, public.offers_staging, public.offer_meta_staging, public.offer_params_staging;
+
+CREATE SEQUENCE public.staging_batch_seq;
+
+ALTER TABLE public.vendor_staging ADD COLUMN batch_id BIGINT NOT NULL;
+ALTER TABLE public.offers_staging ADD COLUMN batch_id BIGINT NOT NULL;
+ALTER TABLE public.offer_meta_staging ADD COLUMN batch_id BIGINT NOT NULL;
+ALTER TABLE public.offer_params_staging ADD COLUMN batch_id BIGINT NOT NULL;
+
+CREATE UNLOGGED TABLE public.currency_staging (
+    batch_id BIGINT NOT NULL,
+    id TEXT,
+    rate BIGINT
+);
+
+CREATE UNLOGGED TABLE public.categories_staging (
+    batch_id BIGINT NOT NULL,
+    id BIGINT,
+    parent_id BIGINT,
+    name TEXT
+);
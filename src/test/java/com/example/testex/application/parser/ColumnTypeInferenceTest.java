@@ -0,0 +1,127 @@
+package com.example.testex.application.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.testex.domain.model.ColumnType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ColumnTypeInferenceTest {
+
+    private static final char[] ALPHABET = {'0', '1', '9', '-', ',', '.', ' ', '\t', 'e', 'T', 'r', 'u'};
+
+    @Test
+    void matchesRegexRulesForSingleValues() {
+        List<String> values = new ArrayList<>(List.of(
+                "", " ", "true", " FALSE ", "truex", "1", "-1", "- 1", "1 000", "1,000", "1,5", "1.5", "1.",
+                ".5", "-", ",", "1-", "1..5", "1,2,3", "1.2.3", "1e5", "\t42\n", "007",
+                "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809",
+                "99999999999999999999"
+        ));
+        Random random = new Random(42);
+        for (int value = 0; value < 20_000; value++) {
+            values.add(randomValue(random));
+        }
+
+        for (String value : values) {
+            ColumnTypeInference inference = new ColumnTypeInference();
+            inference.accept(value);
+            assertThat(inference.columnType()).as("type of [%s]", value).isEqualTo(regexType(List.of(value)));
+            assertThat(inference.lastValueIsLong()).as("long of [%s]", value).isEqualTo(regexLong(value) != null);
+            if (inference.lastValueIsLong()) {
+                assertThat(inference.lastLongValue()).as("value of [%s]", value).isEqualTo(regexLong(value));
+            }
+        }
+    }
+
+    @Test
+    void matchesRegexRulesForColumns() {
+        Random random = new Random(7);
+        List<String> samples = List.of("true", "false", "12", "-3", "1,000", "1.5", "2,25", "abc", "", " ");
+        for (int column = 0; column < 5_000; column++) {
+            List<String> values = new ArrayList<>();
+            int size = 1 + random.nextInt(5);
+            for (int row = 0; row < size; row++) {
+                values.add(random.nextInt(4) == 0 ? randomValue(random) : samples.get(random.nextInt(samples.size())));
+            }
+            if (random.nextInt(10) == 0) {
+                values.add(null);
+            }
+
+            ColumnTypeInference inference = new ColumnTypeInference();
+            values.forEach(inference::accept);
+            assertThat(inference.columnType()).as("type of %s", values).isEqualTo(regexType(values));
+        }
+    }
+
+    @Test
+    void reportsLongOnlyForTheLastValue() {
+        ColumnTypeInference inference = new ColumnTypeInference();
+        inference.accept("17");
+        assertThat(inference.lastValueIsLong()).isTrue();
+        assertThat(inference.lastLongValue()).isEqualTo(17);
+
+        inference.accept(" ");
+        assertThat(inference.lastValueIsLong()).isFalse();
+        assertThat(inference.columnType()).isEqualTo(ColumnType.BIGINT);
+
+        inference.accept("1.5");
+        assertThat(inference.lastValueIsLong()).isFalse();
+        inference.accept("18");
+        assertThat(inference.lastValueIsLong()).isFalse();
+        assertThat(inference.columnType()).isEqualTo(ColumnType.NUMERIC);
+    }
+
+    private static String randomValue(Random random) {
+        char[] characters = new char[random.nextInt(7)];
+        for (int index = 0; index < characters.length; index++) {
+            characters[index] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(characters);
+    }
+
+    private static ColumnType regexType(List<String> values) {
+        boolean allBoolean = true;
+        boolean allInteger = true;
+        boolean allDecimal = true;
+        int nonEmptyValues = 0;
+        for (String value : values) {
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            nonEmptyValues++;
+            String trimmed = value.trim();
+            allBoolean &= Arrays.asList("true", "false").contains(trimmed.toLowerCase());
+            allInteger &= trimmed.replace(" ", "").replace(",", "").matches("-?\\d+");
+            allDecimal &= trimmed.replace(" ", "").replace(",", ".").matches("-?\\d+(\\.\\d+)?");
+        }
+        if (nonEmptyValues == 0) {
+            return ColumnType.TEXT;
+        }
+        if (allBoolean) {
+            return ColumnType.BOOLEAN;
+        }
+        if (allInteger) {
+            return ColumnType.BIGINT;
+        }
+        return allDecimal ? ColumnType.NUMERIC : ColumnType.TEXT;
+    }
+
+    private static Long regexLong(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().replace(" ", "").replace(",", "");
+        if (!normalized.matches("-?\\d+") || regexType(List.of(value)) != ColumnType.BIGINT) {
+            return null;
+        }
+        try {
+            return Long.parseLong(normalized);
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+}
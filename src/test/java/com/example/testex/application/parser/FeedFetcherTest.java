@@ -0,0 +1,188 @@
+package com.example.testex.application.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.testex.application.config.FeedProperties;
+import com.example.testex.application.config.XmlParserSecurityProperties;
+import com.example.testex.application.metrics.IngestionMetrics;
+import com.example.testex.domain.model.ParsedCatalog;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FeedFetcherTest {
+
+    private static final String LAST_MODIFIED = "Mon, 01 Jan 2024 10:00:00 GMT";
+
+    @TempDir
+    Path spoolDir;
+
+    private HttpServer server;
+    private final List<Request> requests = new ArrayList<>();
+    private volatile String body;
+    private volatile String etag;
+
+    private FeedFetcher feedFetcher;
+    private CatalogXmlParser catalogXmlParser;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/catalog.xml", this::handle);
+        server.start();
+
+        FeedProperties feedProperties = new FeedProperties();
+        feedProperties.setSpoolDir(spoolDir.toString());
+        IngestionMetrics ingestionMetrics = new IngestionMetrics(new SimpleMeterRegistry());
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/catalog.xml";
+        feedFetcher = new FeedFetcher(url, feedProperties, ingestionMetrics);
+        catalogXmlParser = new CatalogXmlParser(feedFetcher, new XmlParserSecurityProperties(), ingestionMetrics);
+        serve(catalog(101), "\"v1\"");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendsStoredValidatorsAndReusesSpoolOnNotModified() throws IOException {
+        FeedFetcher.FetchedFeed downloaded = feedFetcher.fetch();
+        assertThat(downloaded.revision()).isEqualTo("\"v1\"");
+        assertThat(requests.get(0).ifNoneMatch()).isNull();
+        assertThat(requests.get(0).ifModifiedSince()).isNull();
+
+        FeedFetcher.FetchedFeed notModified = feedFetcher.fetch();
+        assertThat(requests.get(1).ifNoneMatch()).isEqualTo("\"v1\"");
+        assertThat(requests.get(1).ifModifiedSince()).isEqualTo(LAST_MODIFIED);
+        assertThat(requests.get(1).status()).isEqualTo(304);
+        assertThat(notModified.revision()).isEqualTo(downloaded.revision());
+        assertThat(notModified.spoolFile()).isEqualTo(downloaded.spoolFile());
+        assertThat(Files.readString(notModified.spoolFile())).isEqualTo(catalog(101));
+    }
+
+    @Test
+    void replacesSpoolOnNewVersion() throws IOException {
+        FeedFetcher.FetchedFeed first = feedFetcher.fetch();
+
+        serve(catalog(202), "\"v2\"");
+        FeedFetcher.FetchedFeed second = feedFetcher.fetch();
+        assertThat(requests.get(1).ifNoneMatch()).isEqualTo("\"v1\"");
+        assertThat(requests.get(1).status()).isEqualTo(200);
+        assertThat(second.revision()).isEqualTo("\"v2\"");
+        assertThat(second.spoolFile()).isEqualTo(first.spoolFile());
+        assertThat(Files.readString(second.spoolFile())).isEqualTo(catalog(202));
+
+        feedFetcher.fetch();
+        assertThat(requests.get(2).ifNoneMatch()).isEqualTo("\"v2\"");
+        assertThat(requests.get(2).status()).isEqualTo(304);
+    }
+
+    @Test
+    void serializesConcurrentFetchesOfTheSameUrl() throws IOException {
+        List<CompletableFuture<FeedFetcher.FetchedFeed>> fetches = new ArrayList<>();
+        for (int fetch = 0; fetch < 4; fetch++) {
+            fetches.add(CompletableFuture.supplyAsync(feedFetcher::fetch));
+        }
+        fetches.forEach(CompletableFuture::join);
+
+        assertThat(requests).extracting(Request::status).containsExactlyInAnyOrder(200, 304, 304, 304);
+        assertThat(Files.readString(fetches.get(0).join().spoolFile())).isEqualTo(catalog(101));
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            assertThat(files).extracting(file -> file.getFileName().toString())
+                    .noneMatch(name -> name.endsWith(".part"))
+                    .hasSize(2);
+        }
+    }
+
+    @Test
+    void catalogLoaderKeepsParsedValueUntilFeedChanges() {
+        UnaryOperator<ParsedCatalog> loader = catalogXmlParser.catalogLoader();
+
+        ParsedCatalog first = loader.apply(null);
+        assertThat(first.offerVendors()).extracting("offerId").containsExactly(101L);
+
+        assertThat(loader.apply(first)).isSameAs(first);
+        assertThat(requests.get(1).status()).isEqualTo(304);
+
+        serve(catalog(202), "\"v2\"");
+        ParsedCatalog second = loader.apply(first);
+        assertThat(requests.get(2).status()).isEqualTo(200);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.offerVendors()).extracting("offerId").containsExactly(202L);
+    }
+
+    private void serve(String body, String etag) {
+        this.body = body;
+        this.etag = etag;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        int status = etag.equals(ifNoneMatch) ? 304 : 200;
+        synchronized (requests) {
+            requests.add(new Request(ifNoneMatch, ifModifiedSince, status));
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+        if (status == 304) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static String catalog(long offerId) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <yml_catalog date="2024-01-01 10:00">
+                  <shop>
+                    <currencies>
+                      <currency id="RUR" rate="1"/>
+                    </currencies>
+                    <categories>
+                      <category id="1">Phones</category>
+                    </categories>
+                    <offers>
+                      <offer id="%d" available="true">
+                        <price>1000</price>
+                        <currencyId>RUR</currencyId>
+                        <categoryId>1</categoryId>
+                        <name>Phone</name>
+                        <vendor>Acme</vendor>
+                        <vendorCode>AC-%d</vendorCode>
+                      </offer>
+                    </offers>
+                  </shop>
+                </yml_catalog>
+                """.formatted(offerId, offerId);
+    }
+
+    private record Request(
+            String ifNoneMatch,
+            String ifModifiedSince,
+            int status
+    ) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.testex.application.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.testex.application.repository.impl.OfferParamsRepositoryImpl.ParamDiff;
+import com.example.testex.application.repository.impl.OfferParamsRepositoryImpl.ParamValue;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OfferParamsDiffTest {
+
+    private static final int COLOR = 1;
+    private static final int SIZE = 2;
+
+    private final Map<Long, Map<ParamValue, ArrayDeque<Long>>> stored = new HashMap<>();
+    private final Map<Long, List<ParamValue>> incoming = new HashMap<>();
+
+    @Test
+    void keepsUnchangedDuplicateParams() {
+        store(10L, 1L, COLOR, "red");
+        store(10L, 2L, COLOR, "red");
+        incoming.put(10L, List.of(param(COLOR, "red"), param(COLOR, "red")));
+
+        ParamDiff diff = diff(10L);
+        assertThat(diff.deletes()).isEmpty();
+        assertThat(diff.updates()).isEmpty();
+        assertThat(diff.inserts()).isEmpty();
+    }
+
+    @Test
+    void reusesTheLeftoverRowOfADuplicateName() {
+        store(10L, 1L, SIZE, "S");
+        store(10L, 2L, SIZE, "M");
+        incoming.put(10L, List.of(param(SIZE, "S"), param(SIZE, "L")));
+
+        ParamDiff diff = diff(10L);
+        assertThat(diff.deletes()).isEmpty();
+        assertThat(diff.updates()).containsExactly(new Object[]{2L, "L"});
+        assertThat(diff.inserts()).isEmpty();
+    }
+
+    @Test
+    void insertsExtraDuplicatesAndDeletesMissingOnes() {
+        store(10L, 1L, COLOR, "red");
+        store(11L, 2L, COLOR, "red");
+        store(11L, 3L, COLOR, "red");
+        store(11L, 4L, SIZE, "M");
+        incoming.put(10L, List.of(param(COLOR, "red"), param(COLOR, "red"), param(COLOR, "blue")));
+        incoming.put(11L, List.of(param(COLOR, "red")));
+
+        ParamDiff diff = diff(10L, 11L);
+        assertThat(diff.deletes()).containsExactlyInAnyOrder(3L, 4L);
+        assertThat(diff.updates()).isEmpty();
+        assertThat(diff.inserts()).containsExactly(
+                new Object[]{10L, COLOR, "red"},
+                new Object[]{10L, COLOR, "blue"}
+        );
+    }
+
+    @Test
+    void updatesOnlyWithinTheSameName() {
+        store(10L, 1L, COLOR, "red");
+        store(10L, 2L, COLOR, null);
+        incoming.put(10L, List.of(param(SIZE, "red"), param(COLOR, null), param(COLOR, "green")));
+
+        ParamDiff diff = diff(10L);
+        assertThat(diff.deletes()).isEmpty();
+        assertThat(diff.updates()).containsExactly(new Object[]{1L, "green"});
+        assertThat(diff.inserts()).containsExactly(new Object[]{10L, SIZE, "red"});
+    }
+
+    @Test
+    void handlesOffersWithoutStoredOrIncomingParams() {
+        store(10L, 1L, COLOR, "red");
+        store(10L, 2L, COLOR, "red");
+        incoming.put(11L, List.of(param(SIZE, "S"), param(SIZE, "S")));
+
+        ParamDiff diff = diff(10L, 11L);
+        assertThat(diff.deletes()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(diff.updates()).isEmpty();
+        assertThat(diff.inserts()).containsExactly(
+                new Object[]{11L, SIZE, "S"},
+                new Object[]{11L, SIZE, "S"}
+        );
+    }
+
+    private ParamDiff diff(Long... offerIds) {
+        return OfferParamsRepositoryImpl.diff(List.of(offerIds), stored, incoming);
+    }
+
+    private void store(long offerId, long id, int nameId, String value) {
+        stored.computeIfAbsent(offerId, key -> new LinkedHashMap<>())
+                .computeIfAbsent(param(nameId, value), key -> new ArrayDeque<>())
+                .add(id);
+    }
+
+    private static ParamValue param(int nameId, String value) {
+        return new ParamValue(nameId, value);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.testex.application.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class PgCopyWriterTest {
+
+    @Test
+    void keepsEmptyStringDistinctFromNull() {
+        assertThat(row(null, "", "x")).isEqualTo(",\"\",\"x\"\n");
+    }
+
+    @Test
+    void escapesQuotesAndQuotesSeparatorsAndNewlines() {
+        assertThat(row("say \"hi\"", "a,b", "line\nbreak", "cr\r\nlf", "\\N"))
+                .isEqualTo("\"say \"\"hi\"\"\",\"a,b\",\"line\nbreak\",\"cr\r\nlf\",\"\\N\"\n");
+    }
+
+    @Test
+    void writesTypedValuesUnquoted() {
+        assertThat(row(42L, -7, true, false, new BigDecimal("1E+3"), new BigDecimal("0.50")))
+                .isEqualTo("42,-7,t,f,1000,0.50\n");
+    }
+
+    @Test
+    void appendsRowsOneAfterAnother() {
+        StringBuilder buffer = new StringBuilder();
+        PgCopyWriter.appendRow(buffer, new Object[]{1L, "\""});
+        PgCopyWriter.appendRow(buffer, new Object[]{null});
+        assertThat(buffer).hasToString("1,\"\"\"\"\n\n");
+    }
+
+    private static String row(Object... values) {
+        StringBuilder buffer = new StringBuilder();
+        PgCopyWriter.appendRow(buffer, values);
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.testex.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.testex.application.config.CatalogCacheProperties;
+import com.example.testex.application.metrics.IngestionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VersionedSnapshotHolderTest {
+
+    private final BlockingQueue<UnaryOperator<String>> loads = new LinkedBlockingQueue<>();
+    private final AtomicInteger loadCount = new AtomicInteger();
+    private final AtomicInteger refreshCount = new AtomicInteger();
+    private final MutableClock clock = new MutableClock();
+    private final CatalogCacheProperties properties = new CatalogCacheProperties();
+    private VersionedSnapshotHolder<String> holder;
+
+    @BeforeEach
+    void createHolder() {
+        properties.setTtl(Duration.ofMinutes(10));
+        properties.setRefreshAhead(Duration.ofMinutes(2));
+        properties.setMaxStale(Duration.ofMinutes(30));
+        holder = new VersionedSnapshotHolder<>("test", this::load, properties,
+                new IngestionMetrics(new SimpleMeterRegistry()), clock, this::startRefresh);
+    }
+
+    @Test
+    void servesFreshValueWithoutReloading() {
+        loads.add(previous -> "v1");
+        assertThat(holder.get()).isEqualTo("v1");
+
+        clock.advance(Duration.ofMinutes(7));
+        assertThat(holder.snapshot().version()).isEqualTo(1);
+        assertThat(loadCount).hasValue(1);
+    }
+
+    @Test
+    void refreshesAheadOfExpiryWithoutBlockingReaders() {
+        loads.add(previous -> "v1");
+        holder.get();
+
+        clock.advance(Duration.ofMinutes(9));
+        assertThat(holder.get()).isEqualTo("v1");
+        CompletableFuture<VersionedSnapshotHolder.Snapshot<String>> refresh = holder.refresh();
+        loads.add(previous -> "v2");
+        refresh.join();
+
+        VersionedSnapshotHolder.Snapshot<String> snapshot = holder.snapshot();
+        assertThat(snapshot.value()).isEqualTo("v2");
+        assertThat(snapshot.version()).isEqualTo(2);
+        assertThat(snapshot.loadedAt()).isEqualTo(clock.instant());
+    }
+
+    @Test
+    void unchangedValueKeepsVersionAndRenewsAge() {
+        loads.add(previous -> "v1");
+        holder.get();
+
+        clock.advance(Duration.ofMinutes(9));
+        holder.get();
+        CompletableFuture<VersionedSnapshotHolder.Snapshot<String>> refresh = holder.refresh();
+        loads.add(previous -> previous);
+        refresh.join();
+
+        assertThat(holder.snapshot().version()).isEqualTo(1);
+        assertThat(holder.snapshot().loadedAt()).isEqualTo(clock.instant());
+    }
+
+    @Test
+    void blocksOnExpiredValueWhenStaleValuesAreNotServed() {
+        properties.setServeStale(false);
+        loads.add(previous -> "v1");
+        loads.add(previous -> "v2");
+        holder.get();
+
+        clock.advance(Duration.ofMinutes(10));
+        assertThat(holder.get()).isEqualTo("v2");
+    }
+
+    @Test
+    void backsOffAfterFailedRefresh() {
+        loads.add(previous -> "v1");
+        holder.get();
+
+        clock.advance(Duration.ofMinutes(9));
+        holder.get();
+        CompletableFuture<VersionedSnapshotHolder.Snapshot<String>> failed = holder.refresh();
+        loads.add(this::fail);
+        assertThatThrownBy(failed::join).isInstanceOf(CompletionException.class);
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(holder.get()).isEqualTo("v1");
+        assertThat(refreshCount).hasValue(2);
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(holder.get()).isEqualTo("v1");
+        CompletableFuture<VersionedSnapshotHolder.Snapshot<String>> refresh = holder.refresh();
+        loads.add(previous -> "v2");
+        refresh.join();
+        assertThat(refreshCount).hasValue(3);
+        assertThat(holder.get()).isEqualTo("v2");
+    }
+
+    @Test
+    void stopsServingStaleValueAfterMaxStale() {
+        loads.add(previous -> "v1");
+        holder.get();
+
+        clock.advance(Duration.ofMinutes(9));
+        holder.get();
+        CompletableFuture<VersionedSnapshotHolder.Snapshot<String>> failed = holder.refresh();
+        loads.add(this::fail);
+        assertThatThrownBy(failed::join).isInstanceOf(CompletionException.class);
+
+        clock.advance(Duration.ofMinutes(31));
+        loads.add(this::fail);
+        assertThatThrownBy(holder::get).isInstanceOf(IllegalStateException.class);
+
+        loads.add(previous -> "v2");
+        assertThat(holder.get()).isEqualTo("v2");
+    }
+
+    private void startRefresh(Runnable refresh) {
+        refreshCount.incrementAndGet();
+        Thread.ofPlatform().name("test-refresh").daemon().start(refresh);
+    }
+
+    private String load(String previous) {
+        loadCount.incrementAndGet();
+        try {
+            return loads.take().apply(previous);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private String fail(String previous) {
+        throw new IllegalStateException("feed unavailable");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant = Instant.parse("2024-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
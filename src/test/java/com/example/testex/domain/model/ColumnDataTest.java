@@ -0,0 +1,112 @@
+package com.example.testex.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ColumnDataTest {
+
+    @Test
+    void longColumnRoundTripsNonCanonicalValues() {
+        List<String> values = Arrays.asList("12", " 007", "1 000", "-0", null, "", "  ", "-42", "9,5");
+        ColumnData column = ColumnData.encode(values, ColumnType.BIGINT);
+
+        assertThat(column).isInstanceOf(LongColumnData.class);
+        assertRoundTrip(column, values);
+        for (int row = 0; row < values.size(); row++) {
+            Long expected = ColumnData.VALUE_PARSER.parseLong(values.get(row));
+            assertThat(column.hasLong(row)).as("row %d", row).isEqualTo(expected != null);
+            if (expected != null) {
+                assertThat(column.getLong(row)).as("row %d", row).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void booleanColumnRoundTripsNonCanonicalValues() {
+        List<String> values = Arrays.asList("true", "TRUE", " false ", "False", null, "", "false");
+        ColumnData column = ColumnData.encode(values, ColumnType.BOOLEAN);
+
+        assertThat(column).isInstanceOf(BooleanColumnData.class);
+        assertRoundTrip(column, values);
+        for (int row = 0; row < values.size(); row++) {
+            Boolean expected = ColumnData.VALUE_PARSER.parseBoolean(values.get(row));
+            assertThat(column.hasBoolean(row)).as("row %d", row).isEqualTo(expected != null);
+            if (expected != null) {
+                assertThat(column.getBoolean(row)).as("row %d", row).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void selectKeepsNonCanonicalValues() {
+        List<String> longs = Arrays.asList("1", " 2", null, "003", "");
+        List<String> booleans = Arrays.asList("true", "TRUE", null, " false", "");
+        int[] rows = {4, 1, 1, 3, 2, 0};
+
+        assertRoundTrip(ColumnData.encode(longs, ColumnType.BIGINT).select(rows), select(longs, rows));
+        assertRoundTrip(ColumnData.encode(booleans, ColumnType.BOOLEAN).select(rows), select(booleans, rows));
+    }
+
+    @Test
+    void dictionarySelectResolvesCodesThroughTheSharedDictionary() {
+        List<String> values = new ArrayList<>();
+        for (int row = 0; row < 64; row++) {
+            values.add(switch (row % 4) {
+                case 0 -> "10";
+                case 1 -> " 20 ";
+                case 2 -> null;
+                default -> "";
+            });
+        }
+        ColumnData column = ColumnData.encode(values, ColumnType.BIGINT);
+        assertThat(column).isInstanceOf(DictionaryColumnData.class);
+
+        int[] rows = {63, 0, 1, 1, 2, 62, 5};
+        ColumnData selected = column.select(rows);
+        assertThat(selected).isInstanceOf(DictionaryColumnData.class);
+        assertRoundTrip(selected, select(values, rows));
+        for (int index = 0; index < rows.length; index++) {
+            assertThat(selected.hasLong(index)).isEqualTo(column.hasLong(rows[index]));
+            assertThat(selected.getText(index)).isEqualTo(column.getText(rows[index]));
+            if (selected.hasLong(index)) {
+                assertThat(selected.getLong(index)).isEqualTo(column.getLong(rows[index]));
+            }
+        }
+        assertThat(column.select(new int[0]).size()).isZero();
+    }
+
+    @Test
+    void dictionarySelectKeepsDecimalAndBooleanAccessors() {
+        List<String> decimals = new ArrayList<>();
+        for (int row = 0; row < 32; row++) {
+            decimals.add(row % 2 == 0 ? "1,50" : "2.25");
+        }
+        ColumnData column = ColumnData.encode(decimals, ColumnType.NUMERIC);
+        assertThat(column).isInstanceOf(DictionaryColumnData.class);
+
+        ColumnData selected = column.select(new int[]{1, 0});
+        assertThat(selected.get(0)).isEqualTo("2.25");
+        assertThat(selected.getDecimal(0)).isEqualByComparingTo("2.25");
+        assertThat(selected.get(1)).isEqualTo("1,50");
+        assertThat(selected.getDecimal(1)).isEqualByComparingTo("1.5");
+    }
+
+    private static void assertRoundTrip(ColumnData column, List<String> values) {
+        assertThat(column.size()).isEqualTo(values.size());
+        for (int row = 0; row < values.size(); row++) {
+            assertThat(column.get(row)).as("row %d", row).isEqualTo(values.get(row));
+        }
+    }
+
+    private static List<String> select(List<String> values, int[] rows) {
+        List<String> selected = new ArrayList<>();
+        for (int row : rows) {
+            selected.add(values.get(row));
+        }
+        return selected;
+    }
+}
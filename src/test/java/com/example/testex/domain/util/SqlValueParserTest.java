@@ -0,0 +1,79 @@
+package com.example.testex.domain.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.testex.domain.model.ColumnType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SqlValueParserTest {
+
+    private static final char[] ALPHABET = {'0', '5', '9', '-', ',', '.', ' ', '\t', 'x'};
+
+    private final SqlValueParser parser = new SqlValueParser();
+
+    @Test
+    void parsesLikeTheRegexRulesItReplaced() {
+        List<String> values = new ArrayList<>(List.of(
+                "1 000", "1,000", "-0", " -12 ", "1,5", "1.5", "1.", ".5", "-", "1-", "--1", "1.2.3",
+                "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809",
+                "true", " FALSE ", "yes"
+        ));
+        Random random = new Random(11);
+        for (int value = 0; value < 20_000; value++) {
+            char[] characters = new char[1 + random.nextInt(6)];
+            for (int index = 0; index < characters.length; index++) {
+                characters[index] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            values.add(new String(characters));
+        }
+
+        for (String value : values) {
+            assertThat(parser.parse(value, ColumnType.BIGINT)).as("long of [%s]", value).isEqualTo(regexLong(value));
+            assertThat(parser.parse(value, ColumnType.NUMERIC)).as("decimal of [%s]", value)
+                    .isEqualTo(regexDecimal(value));
+            assertThat(parser.parse(value, ColumnType.BOOLEAN)).as("boolean of [%s]", value)
+                    .isEqualTo(regexBoolean(value));
+        }
+    }
+
+    @Test
+    void treatsBlankValuesAsNull() {
+        for (ColumnType columnType : ColumnType.values()) {
+            assertThat(parser.parse(null, columnType)).isNull();
+            assertThat(parser.parse(" \t", columnType)).isNull();
+        }
+        assertThat(parser.parse("  text ", ColumnType.TEXT)).isEqualTo("text");
+    }
+
+    private static Long regexLong(String value) {
+        String normalized = value.trim().replace(" ", "").replace(",", "");
+        if (normalized.isEmpty() || !normalized.matches("-?\\d+")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(normalized);
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private static BigDecimal regexDecimal(String value) {
+        String normalized = value.trim().replace(" ", "").replace(",", ".");
+        if (normalized.isEmpty() || !normalized.matches("-?\\d+(\\.\\d+)?")) {
+            return null;
+        }
+        return new BigDecimal(normalized);
+    }
+
+    private static Boolean regexBoolean(String value) {
+        String trimmed = value.trim();
+        if ("true".equalsIgnoreCase(trimmed) || "false".equalsIgnoreCase(trimmed)) {
+            return Boolean.parseBoolean(trimmed);
+        }
+        return null;
+    }
+}